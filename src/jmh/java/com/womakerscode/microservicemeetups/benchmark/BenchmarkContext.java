@@ -0,0 +1,75 @@
+package com.womakerscode.microservicemeetups.benchmark;
+
+import com.womakerscode.microservicemeetups.ServicoDeAgendamentoDeMeetupsApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sobe a aplicacao (sem servidor web) sobre um H2 em memoria populado com {@code rows} eventos e
+ * inscricoes, compartilhado por todas as threads do benchmark.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ServicoDeAgendamentoDeMeetupsApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:meetups-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        BenchmarkDataSeeder.seed(context.getBean(JdbcTemplate.class), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // o banco sobrevive ao contexto (DB_CLOSE_DELAY); o proximo trial recria o schema pelo Flyway
+        context.getBean(JdbcTemplate.class).execute("drop all objects");
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Transacao de escrita em volta da chamada: os services participam dela e o readOnly das suas leituras deixa
+     * de valer, o que serve de comparacao com as transacoes somente leitura.
+     */
+    public TransactionTemplate getTransactionTemplate() {
+        return transactionTemplate;
+    }
+
+    /**
+     * Id de um evento que possui {@link BenchmarkDataSeeder#REGISTRATIONS_PER_EVENT} inscricoes.
+     */
+    public long randomEventWithRegistrations() {
+        return BenchmarkDataSeeder.randomEventWithRegistrations(rows);
+    }
+
+    public long randomEvent() {
+        return BenchmarkDataSeeder.randomEvent(rows);
+    }
+
+}
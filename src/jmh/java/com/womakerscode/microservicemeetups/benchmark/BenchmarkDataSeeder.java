@@ -0,0 +1,146 @@
+package com.womakerscode.microservicemeetups.benchmark;
+
+import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.model.support.PooledSequenceGenerator;
+import com.womakerscode.microservicemeetups.util.SearchUtil;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Popula as tabelas via JDBC em lotes. Sao criados {@code rows} eventos (ids 1..rows) e {@code rows}
+ * inscricoes, {@link #REGISTRATIONS_PER_EVENT} por evento nos primeiros {@code rows / 10} eventos.
+ */
+public final class BenchmarkDataSeeder {
+
+    public static final int REGISTRATIONS_PER_EVENT = 10;
+
+    static final String[] TOPICS = {"Java", "Spring", "Dados", "Carreira", "Cloud", "Kotlin", "Testes"};
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2022, 3, 24, 19, 0);
+
+    private BenchmarkDataSeeder() {
+    }
+
+    public static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        seedEvents(jdbcTemplate, rows);
+        seedRegistrations(jdbcTemplate, rows);
+    }
+
+    public static long randomEventWithRegistrations(int rows) {
+        return ThreadLocalRandom.current().nextLong(1, eventsWithRegistrations(rows) + 1);
+    }
+
+    public static long randomEvent(int rows) {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+
+    public static String title(long i) {
+        return "Meetup " + i + " " + TOPICS[(int) (i % TOPICS.length)];
+    }
+
+    private static long eventsWithRegistrations(int rows) {
+        return Math.max(rows / REGISTRATIONS_PER_EVENT, 1);
+    }
+
+    private static void seedEvents(JdbcTemplate jdbcTemplate, int rows) {
+        Batch events = new Batch(jdbcTemplate, "insert into event (event_id, title, title_normalized, " +
+                "description, creation_date, start_date, end_date, event_type_enum, organizer_id) " +
+                "values (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        Batch trigrams = new Batch(jdbcTemplate, "insert into event_title_trigram (event_id, trigram) values (?, ?)",
+                events);
+        for (long i = 1; i <= rows; i++) {
+            LocalDateTime start = BASE_DATE.plusDays(i % 365);
+            String normalized = SearchUtil.normalize(title(i));
+            events.add(i,
+                    title(i),
+                    normalized,
+                    "Descricao do meetup " + i,
+                    Timestamp.valueOf(BASE_DATE),
+                    Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusHours(2)),
+                    (i % 2 == 0 ? EventTypeEnum.ONLINE : EventTypeEnum.FACE_TO_FACE).name(),
+                    i % 100);
+            for (String trigram : SearchUtil.trigrams(normalized)) {
+                trigrams.add(i, trigram);
+            }
+        }
+        trigrams.flush();
+        restartSequence(jdbcTemplate, "event_sequence", rows);
+    }
+
+    private static void seedRegistrations(JdbcTemplate jdbcTemplate, int rows) {
+        Batch registrations = new Batch(jdbcTemplate, "insert into registration (registration_id, name_tag, " +
+                "name_tag_normalized, date_of_registration, event_id, participant_id) values (?, ?, ?, ?, ?, ?)");
+        Batch trigrams = new Batch(jdbcTemplate,
+                "insert into registration_name_tag_trigram (registration_id, trigram) values (?, ?)", registrations);
+        long total = eventsWithRegistrations(rows) * REGISTRATIONS_PER_EVENT;
+        for (long i = 0; i < total; i++) {
+            String normalized = SearchUtil.normalize("Participante " + i);
+            registrations.add(i + 1,
+                    "Participante " + i,
+                    normalized,
+                    Timestamp.valueOf(BASE_DATE.minusDays(i % 30)),
+                    i / REGISTRATIONS_PER_EVENT + 1,
+                    i);
+            for (String trigram : SearchUtil.trigrams(normalized)) {
+                trigrams.add(i + 1, trigram);
+            }
+        }
+        trigrams.flush();
+        restartSequence(jdbcTemplate, "registration_sequence", total);
+    }
+
+    // ids 1..n gravados direto; o otimizador pooled reserva (valor - incremento .. valor] a cada consulta
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, long lastId) {
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " +
+                (lastId + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE));
+    }
+
+    private static final class Batch {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        private final String sql;
+
+        // lote das linhas referenciadas pela chave estrangeira, gravado antes deste
+        private final Batch parent;
+
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        Batch(JdbcTemplate jdbcTemplate, String sql) {
+            this(jdbcTemplate, sql, null);
+        }
+
+        Batch(JdbcTemplate jdbcTemplate, String sql, Batch parent) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.sql = sql;
+            this.parent = parent;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (parent != null) {
+                parent.flush();
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.womakerscode.microservicemeetups.benchmark;
+
+import com.womakerscode.microservicemeetups.util.DateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateUtilBenchmark {
+
+    private final LocalDateTime dateTime = LocalDateTime.of(2022, 3, 24, 19, 30);
+
+    private final String text = "24/03/2022 19:30";
+
+    @Benchmark
+    public String format() {
+        return DateUtil.formatLocalDateTimeToStringWithTime(dateTime);
+    }
+
+    @Benchmark
+    public LocalDateTime parse() {
+        return DateUtil.convertStringToLocalDateTimeWithTime(text);
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.womakerscode.microservicemeetups.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.womakerscode.microservicemeetups.controller.dto.EventRequestFilter;
+import com.womakerscode.microservicemeetups.controller.dto.EventResponse;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationsEmbed;
+import com.womakerscode.microservicemeetups.controller.render.EventResponseRenderer;
+import com.womakerscode.microservicemeetups.controller.resource.EventController;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.repository.projection.EventVersion;
+import com.womakerscode.microservicemeetups.service.EventService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/event e GET /api/event/{id} chamados direto no controller; no contexto da aplicacao o GET por id
+ * responde do cache de respostas renderizadas, e {@code getNotModified} revalida o ETag com um 304.
+ * {@code getEventMapping} isola a montagem e a serializacao do EventResponse (o que o cache evita) usando um
+ * evento em memoria, sem acesso ao banco nem cache. {@code getFirstRegistrations} e {@code findRegistrationCount}
+ * usam o {@code ?embed} para trazer apenas as primeiras inscricoes ou so o total.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventControllerBenchmark {
+
+    @Benchmark
+    public Page<EventResponse> find(BenchmarkContext context) {
+        EventController controller = context.getBean(EventController.class);
+        EventRequestFilter filter = EventRequestFilter.builder().title("spring").build();
+        return controller.find(filter, PageRequest.of(0, 20), RegistrationsEmbed.ALL_VALUE);
+    }
+
+    @Benchmark
+    public Page<EventResponse> findRegistrationCount(BenchmarkContext context) {
+        EventController controller = context.getBean(EventController.class);
+        EventRequestFilter filter = EventRequestFilter.builder().title("spring").build();
+        return controller.find(filter, PageRequest.of(0, 20), "count");
+    }
+
+    // requisicao sem If-None-Match
+    private static final WebRequest UNCONDITIONAL = webRequest(null);
+
+    // os eventos do BenchmarkDataSeeder nunca foram alterados: versao 0, inscricoes na versao 0
+    private static final WebRequest NOT_MODIFIED = webRequest("\"0.0\"");
+
+    @Benchmark
+    public ResponseEntity<byte[]> get(BenchmarkContext context) {
+        EventController controller = context.getBean(EventController.class);
+        long id = context.randomEventWithRegistrations();
+        return controller.get(id, RegistrationsEmbed.ALL_VALUE, UNCONDITIONAL);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> getFirstRegistrations(BenchmarkContext context) {
+        EventController controller = context.getBean(EventController.class);
+        long id = context.randomEventWithRegistrations();
+        return controller.get(id, "first-10", UNCONDITIONAL);
+    }
+
+    // revalidacao com o ETag atual: apenas a consulta as versoes, resposta 304
+    @Benchmark
+    public ResponseEntity<byte[]> getNotModified(BenchmarkContext context) {
+        EventController controller = context.getBean(EventController.class);
+        long id = context.randomEventWithRegistrations();
+        return controller.get(id, RegistrationsEmbed.ALL_VALUE, NOT_MODIFIED);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> getEventMapping(MappingFixture fixture) {
+        return fixture.controller.get(fixture.event.getId(), RegistrationsEmbed.ALL_VALUE, UNCONDITIONAL);
+    }
+
+    private static WebRequest webRequest(String ifNoneMatch) {
+        return (WebRequest) Proxy.newProxyInstance(
+                WebRequest.class.getClassLoader(),
+                new Class<?>[]{WebRequest.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getHeader")) {
+                        return HttpHeaders.IF_NONE_MATCH.equals(args[0]) ? ifNoneMatch : null;
+                    }
+                    if (method.getName().equals("checkNotModified")) {
+                        return args[0].equals(ifNoneMatch);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @State(Scope.Benchmark)
+    public static class MappingFixture {
+
+        private static final EventVersion VERSION = new EventVersion() {
+
+            @Override
+            public long getVersion() {
+                return 0;
+            }
+
+            @Override
+            public long getRegistrationsVersion() {
+                return 0;
+            }
+
+            @Override
+            public int getRegistrationCount() {
+                return 0;
+            }
+
+        };
+
+        @Param({"0", "100", "10000"})
+        public int registrations;
+
+        Event event;
+
+        EventController controller;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            event = createEvent(registrations);
+            EventService eventService = (EventService) Proxy.newProxyInstance(
+                    EventService.class.getClassLoader(),
+                    new Class<?>[]{EventService.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("getById")) {
+                            return Optional.of(event);
+                        }
+                        if (method.getName().equals("getRegistrations")) {
+                            return event.getRegistrations();
+                        }
+                        if (method.getName().equals("getVersion")) {
+                            return Optional.of(VERSION);
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+            controller = new EventController(eventService,
+                    new EventResponseRenderer(eventService, new ObjectMapper()));
+        }
+
+    }
+
+    static Event createEvent(int registrations) {
+        Event event = Event.builder()
+                .id(1L)
+                .title(BenchmarkDataSeeder.title(1))
+                .description("Descricao do meetup 1")
+                .creationDate(LocalDateTime.of(2022, 3, 1, 10, 0))
+                .startDate(LocalDateTime.of(2022, 3, 24, 19, 0))
+                .endDate(LocalDateTime.of(2022, 3, 24, 21, 0))
+                .eventTypeEnum(EventTypeEnum.FACE_TO_FACE)
+                .organizerId(3L)
+                .build();
+        List<Registration> list = new ArrayList<>(registrations);
+        for (long i = 0; i < registrations; i++) {
+            list.add(Registration.builder()
+                    .id(i + 1)
+                    .nameTag("Participante " + i)
+                    .dateOfRegistration(LocalDateTime.of(2022, 3, 10, 8, 30))
+                    .event(event)
+                    .participantId(i)
+                    .build());
+        }
+        event.setRegistrations(list);
+        return event;
+    }
+
+}
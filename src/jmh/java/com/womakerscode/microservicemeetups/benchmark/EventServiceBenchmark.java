@@ -0,0 +1,92 @@
+package com.womakerscode.microservicemeetups.benchmark;
+
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.repository.projection.EventSummary;
+import com.womakerscode.microservicemeetups.service.EventService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link EventService#find} usado no GET /api/event (filtro por titulo pelo indice de trigramas e sem filtro)
+ * e {@link EventService#save}, com a duplicidade validada pela unique no proprio insert.
+ * {@link EventService#getRegistrations} carrega entidades: na transacao somente leitura do service o Hibernate
+ * nao guarda o snapshot de cada uma nem confere as alteracoes no commit, o que {@code getRegistrationsReadWrite}
+ * faz (compare o gc.alloc.rate.norm do profiler de GC). {@code findWithFirstRegistrations} e
+ * {@code findWithoutRegistrations} sao as listagens do {@code ?embed=first-N} e {@code ?embed=count}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventServiceBenchmark {
+
+    private static final AtomicLong TITLE_SEQUENCE = new AtomicLong();
+
+    @Benchmark
+    public Page<EventSummary> findByTitle(BenchmarkContext context) {
+        return context.getBean(EventService.class)
+                .find(Event.builder().title("spring").build(), PageRequest.of(0, 20), null);
+    }
+
+    // termo seletivo: poucos eventos possuem todos os trigramas
+    @Benchmark
+    public Page<EventSummary> findBySelectiveTitle(BenchmarkContext context) {
+        return context.getBean(EventService.class)
+                .find(Event.builder().title("up 4242 ").build(), PageRequest.of(0, 20), null);
+    }
+
+    @Benchmark
+    public Page<EventSummary> findWithoutFilter(BenchmarkContext context) {
+        return context.getBean(EventService.class)
+                .find(new Event(), PageRequest.of(0, 20), null);
+    }
+
+    @Benchmark
+    public Page<EventSummary> findWithFirstRegistrations(BenchmarkContext context) {
+        return context.getBean(EventService.class)
+                .find(new Event(), PageRequest.of(0, 20), 5);
+    }
+
+    @Benchmark
+    public Page<EventSummary> findWithoutRegistrations(BenchmarkContext context) {
+        return context.getBean(EventService.class)
+                .find(new Event(), PageRequest.of(0, 20), 0);
+    }
+
+    @Benchmark
+    public List<Registration> getRegistrations(BenchmarkContext context) {
+        return context.getBean(EventService.class).getRegistrations(context.randomEventWithRegistrations());
+    }
+
+    @Benchmark
+    public List<Registration> getRegistrationsReadWrite(BenchmarkContext context) {
+        long id = context.randomEventWithRegistrations();
+        return context.getTransactionTemplate()
+                .execute(status -> context.getBean(EventService.class).getRegistrations(id));
+    }
+
+    @Benchmark
+    public Event save(BenchmarkContext context) {
+        LocalDateTime start = LocalDateTime.of(2022, 3, 24, 19, 0);
+        Event event = Event.builder()
+                .title("Meetup benchmark " + TITLE_SEQUENCE.incrementAndGet())
+                .description("Descricao do meetup benchmark")
+                .creationDate(LocalDateTime.now())
+                .startDate(start)
+                .endDate(start.plusHours(2))
+                .eventTypeEnum(EventTypeEnum.ONLINE)
+                .organizerId(1L)
+                .build();
+        return context.getBean(EventService.class).save(event);
+    }
+
+}
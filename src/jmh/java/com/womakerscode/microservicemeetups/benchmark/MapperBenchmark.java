@@ -0,0 +1,111 @@
+package com.womakerscode.microservicemeetups.benchmark;
+
+import com.womakerscode.microservicemeetups.controller.dto.EventPostRequestBody;
+import com.womakerscode.microservicemeetups.controller.dto.EventResponse;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationResponse;
+import com.womakerscode.microservicemeetups.controller.mapper.EventMapper;
+import com.womakerscode.microservicemeetups.controller.mapper.RegistrationMapper;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.util.DateUtil;
+import org.modelmapper.AbstractConverter;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara os mappers escritos a mao com o ModelMapper configurado como a aplicacao usava antes
+ * (conversores de data registrados no bean).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    @Param({"0", "100"})
+    public int registrations;
+
+    private ModelMapper modelMapper;
+
+    private Event event;
+
+    private Registration registration;
+
+    private EventPostRequestBody eventPostRequestBody;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.addConverter(new AbstractConverter<String, LocalDateTime>() {
+            @Override
+            protected LocalDateTime convert(String source) {
+                return DateUtil.convertStringToLocalDateTimeWithTime(source);
+            }
+        });
+        modelMapper.addConverter(new AbstractConverter<LocalDateTime, String>() {
+            @Override
+            protected String convert(LocalDateTime source) {
+                return DateUtil.formatLocalDateTimeToStringWithTime(source);
+            }
+        });
+
+        event = EventControllerBenchmark.createEvent(registrations);
+        registration = Registration.builder()
+                .id(1L)
+                .nameTag("Participante 1")
+                .dateOfRegistration(LocalDateTime.of(2022, 3, 10, 8, 30))
+                .event(event)
+                .participantId(1L)
+                .build();
+        eventPostRequestBody = EventPostRequestBody.builder()
+                .title(event.getTitle())
+                .description(event.getDescription())
+                .startDate("24/03/2022 19:00")
+                .endDate("24/03/2022 21:00")
+                .eventTypeEnum(EventTypeEnum.ONLINE)
+                .organizerId(3L)
+                .build();
+    }
+
+    @Benchmark
+    public EventResponse eventToResponseModelMapper() {
+        return modelMapper.map(event, EventResponse.class);
+    }
+
+    @Benchmark
+    public EventResponse eventToResponseMapper() {
+        return EventMapper.toResponse(event);
+    }
+
+    @Benchmark
+    public Event eventPostRequestBodyToEntityModelMapper() {
+        return modelMapper.map(eventPostRequestBody, Event.class);
+    }
+
+    @Benchmark
+    public Event eventPostRequestBodyToEntityMapper() {
+        return EventMapper.toEntity(eventPostRequestBody);
+    }
+
+    @Benchmark
+    public RegistrationResponse registrationToResponseModelMapper() {
+        return modelMapper.map(registration, RegistrationResponse.class);
+    }
+
+    @Benchmark
+    public RegistrationResponse registrationToResponseMapper() {
+        return RegistrationMapper.toResponse(registration);
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.womakerscode.microservicemeetups.benchmark;
+
+import com.womakerscode.microservicemeetups.exception.BusinessException;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.service.RegistrationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link RegistrationService#save}: insert validado pela unique (event_id, participant_id), e o caminho em
+ * que a inscricao ja existe e a violacao vira BusinessException. {@link RegistrationService#saveAll} grava
+ * {@link #SAVE_ALL_SIZE} inscricoes na mesma transacao, em lotes do JDBC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RegistrationServiceBenchmark {
+
+    // acima dos participantes gerados pelo BenchmarkDataSeeder
+    private static final AtomicLong PARTICIPANT_SEQUENCE = new AtomicLong(1_000_000_000L);
+
+    private static final int SAVE_ALL_SIZE = 100;
+
+    @Benchmark
+    public Registration save(BenchmarkContext context) {
+        Registration registration = Registration.builder()
+                .nameTag("Participante benchmark")
+                .dateOfRegistration(LocalDateTime.now())
+                .event(Event.builder().id(context.randomEvent()).build())
+                .participantId(PARTICIPANT_SEQUENCE.incrementAndGet())
+                .build();
+        return context.getBean(RegistrationService.class).save(registration);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAVE_ALL_SIZE)
+    public List<Registration> saveAll(BenchmarkContext context) {
+        Event event = Event.builder().id(context.randomEvent()).build();
+        List<Registration> registrations = new ArrayList<>(SAVE_ALL_SIZE);
+        for (int i = 0; i < SAVE_ALL_SIZE; i++) {
+            registrations.add(Registration.builder()
+                    .nameTag("Participante benchmark")
+                    .dateOfRegistration(LocalDateTime.now())
+                    .event(event)
+                    .participantId(PARTICIPANT_SEQUENCE.incrementAndGet())
+                    .build());
+        }
+        return context.getBean(RegistrationService.class).saveAll(event.getId(), registrations);
+    }
+
+    @Benchmark
+    public Object saveDuplicated(BenchmarkContext context) {
+        // o participante 0 esta inscrito no evento 1
+        Registration registration = Registration.builder()
+                .nameTag("Participante 0")
+                .dateOfRegistration(LocalDateTime.now())
+                .event(Event.builder().id(1L).build())
+                .participantId(0L)
+                .build();
+        try {
+            return context.getBean(RegistrationService.class).save(registration);
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.womakerscode.microservicemeetups.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.womakerscode.microservicemeetups.controller.render.RenderedResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Caches do Spring Cache, providos pelo Caffeine. Tamanho, expiracao e estatisticas (hit/miss/eviction,
+ * publicadas em /actuator/metrics como cache.gets e cache.evictions) ficam em spring.cache.caffeine.spec,
+ * exceto no cache das respostas renderizadas, limitado pelo total de bytes.
+ */
+@Configuration
+// o interceptor do cache envolve o das transacoes: as remocoes acontecem depois do commit, e uma leitura
+// concorrente nao volta a guardar o estado anterior
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    // eventos por id, lidos pelo EventServiceImpl.getById
+    public static final String EVENT_CACHE = "event";
+
+    // JSON do GET /api/event/{id}, com as inscricoes (EventResponseRenderer)
+    public static final String EVENT_RESPONSE_CACHE = "eventResponse";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> eventResponseCacheCustomizer(
+            @Value("${meetups.cache.event-response.maximum-bytes}") long maximumBytes,
+            @Value("${meetups.cache.event-response.expire-after-write}") Duration expireAfterWrite) {
+        // o tamanho da resposta varia com o numero de inscritos: o limite e em bytes, nao em entradas
+        return cacheManager -> cacheManager.registerCustomCache(EVENT_RESPONSE_CACHE, Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Object key, Object value) ->
+                        value instanceof RenderedResponse ? ((RenderedResponse) value).getBody().length : 1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build());
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.womakerscode.microservicemeetups.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Timers do Micrometer, publicados em /actuator/prometheus. As requisicoes (http.server.requests), os metodos
+ * dos repositorios (spring.data.repository.invocations), o Hikari e a JVM sao medidos pelo Spring Boot; aqui
+ * ficam os metodos dos services anotados com {@code @Timed(SERVICE_TIMER)}, com as tags class e method. So os
+ * que acessam o banco sao anotados: validacoes em memoria nao justificam o custo do aspecto a cada chamada. Os
+ * histogramas de percentis sao ligados em application.properties.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "meetups.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+}
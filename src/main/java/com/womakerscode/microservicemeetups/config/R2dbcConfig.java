@@ -0,0 +1,93 @@
+package com.womakerscode.microservicemeetups.config;
+
+import com.womakerscode.microservicemeetups.repository.reactive.ReactiveEventRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.util.StringUtils;
+
+/**
+ * Modo opcional ({@code meetups.r2dbc.enabled=true}) da API reativa de leitura, pelo R2DBC
+ * ({@link com.womakerscode.microservicemeetups.repository.reactive}). As conexoes vem de spring.r2dbc.*; sem
+ * spring.r2dbc.url, abre o mesmo banco H2 do spring.datasource.url pelo driver do r2dbc-h2, encontrado em tempo de
+ * execucao como os demais drivers R2DBC. O pool e limitado por spring.r2dbc.pool.max-size.
+ * <p>
+ * O ConnectionFactory nao e exposto como bean: com um deles no contexto o Spring Boot deixa de criar o
+ * DataSource do JPA e do Flyway. O R2dbcAutoConfiguration fica desligado em application.properties pelo mesmo
+ * motivo.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "meetups.r2dbc.enabled", havingValue = "true")
+@EnableConfigurationProperties(R2dbcProperties.class)
+@EnableR2dbcRepositories(basePackageClasses = ReactiveEventRepository.class)
+public class R2dbcConfig implements DisposableBean {
+
+    private static final String JDBC_H2_PREFIX = "jdbc:h2:";
+
+    private static final String H2_DRIVER = "h2";
+
+    // url do H2 sem o prefixo jdbc:h2:, repassada como esta pelo driver
+    private static final Option<String> H2_URL = Option.valueOf("url");
+
+    private final ConnectionPool connectionPool;
+
+    public R2dbcConfig(R2dbcProperties r2dbcProperties, DataSourceProperties dataSourceProperties) {
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(
+                        connectionFactory(r2dbcProperties, dataSourceProperties))
+                .initialSize(0)
+                .maxSize(r2dbcProperties.getPool().getMaxSize())
+                .build());
+    }
+
+    // nome esperado pelo @EnableR2dbcRepositories
+    @Bean
+    public R2dbcEntityTemplate r2dbcEntityTemplate() {
+        return new R2dbcEntityTemplate(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    private static ConnectionFactory connectionFactory(R2dbcProperties r2dbcProperties,
+                                                       DataSourceProperties dataSourceProperties) {
+        if (StringUtils.hasText(r2dbcProperties.getUrl())) {
+            return build(ConnectionFactoryBuilder.withUrl(r2dbcProperties.getUrl()), r2dbcProperties.getUsername(),
+                    r2dbcProperties.getPassword());
+        }
+        String url = dataSourceProperties.determineUrl();
+        if (url == null || !url.startsWith(JDBC_H2_PREFIX)) {
+            throw new IllegalStateException("Set spring.r2dbc.url to enable the reactive read API on " + url);
+        }
+        // jdbc:h2:mem:<nome>;... -> mem:<nome>;... (o r2dbc-h2 abre o banco pelo H2 embarcado, na mesma JVM)
+        return build(ConnectionFactoryBuilder.withOptions(ConnectionFactoryOptions.builder()
+                        .option(ConnectionFactoryOptions.DRIVER, H2_DRIVER)
+                        .option(H2_URL, url.substring(JDBC_H2_PREFIX.length()))),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    private static ConnectionFactory build(ConnectionFactoryBuilder builder, String username, String password) {
+        // as opcoes do R2DBC nao aceitam valor nulo
+        if (StringUtils.hasText(username)) {
+            builder.username(username);
+        }
+        if (StringUtils.hasText(password)) {
+            builder.password(password);
+        }
+        return builder.build();
+    }
+
+}
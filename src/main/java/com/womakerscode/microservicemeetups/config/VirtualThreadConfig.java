@@ -0,0 +1,37 @@
+package com.womakerscode.microservicemeetups.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Modo opcional ({@code meetups.threads.virtual=true}) em que as requisicoes do Tomcat e o trabalho assincrono
+ * do Spring MVC (ex.: a exportacao de inscricoes) rodam em virtual threads: uma por requisicao, sem o limite
+ * de server.tomcat.threads.max, e a espera pelo JDBC nao ocupa uma thread da plataforma. Exige Java 21; em
+ * versoes anteriores a aplicacao nao sobe com o modo ligado. As consultas continuam limitadas pelo pool de
+ * conexoes do Hikari.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "meetups.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = VirtualThreads.newExecutor("tomcat-handler-");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    // substitui o pool do TaskExecutionAutoConfiguration, usado pelo Spring MVC nas respostas assincronas
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(VirtualThreads.newExecutor("task-"));
+    }
+
+}
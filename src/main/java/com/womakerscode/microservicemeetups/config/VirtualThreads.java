@@ -0,0 +1,49 @@
+package com.womakerscode.microservicemeetups.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executores de virtual threads (Java 21) criados por reflexao: o projeto compila em Java 11, e a API so e
+ * usada quando a aplicacao roda em uma JVM que a possui.
+ */
+public final class VirtualThreads {
+
+    private static final int MINIMUM_JAVA_VERSION = 21;
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= MINIMUM_JAVA_VERSION;
+    }
+
+    /**
+     * Uma virtual thread nova por tarefa, com nome {@code prefix} e um contador.
+     *
+     * @throws IllegalStateException quando a JVM e anterior ao Java 21
+     */
+    public static ExecutorService newExecutor(String prefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads require Java " + MINIMUM_JAVA_VERSION
+                    + " or later, running on " + Runtime.version());
+        }
+        try {
+            // Thread.ofVirtual().name(prefix, 0).factory()
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newExecutor.invoke(null, factory);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Could not create the virtual thread executor", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create the virtual thread executor", e);
+        }
+    }
+
+}
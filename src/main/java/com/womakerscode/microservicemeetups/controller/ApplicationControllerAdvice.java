@@ -2,6 +2,7 @@ package com.womakerscode.microservicemeetups.controller;
 
 import com.womakerscode.microservicemeetups.controller.exceptions.ApiErrors;
 import com.womakerscode.microservicemeetups.exception.BusinessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -27,6 +28,13 @@ public class ApplicationControllerAdvice {
         return new ApiErrors(e);
     }
 
+    // a versao gravada mudou entre a leitura e a escrita: o cliente deve reler o recurso e tentar de novo
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrors handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        return new ApiErrors("The resource was changed by another request");
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     @ResponseStatus
     public ResponseEntity handleResponseStatusException(ResponseStatusException ex) {
@@ -0,0 +1,48 @@
+package com.womakerscode.microservicemeetups.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pagina da paginacao por cursor: a proxima pagina e obtida passando {@code nextCursor} em {@code after}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    public static final String DEFAULT_SIZE = "20";
+
+    public static final int MAX_SIZE = 2000;
+
+    private List<T> content;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private Long nextCursor;
+
+    public static <E, T> CursorPageResponse<T> of(Slice<E> slice, Function<E, T> mapper, Function<E, Long> idGetter) {
+        List<E> content = slice.getContent();
+        return CursorPageResponse.<T>builder()
+                .content(content.stream().map(mapper).collect(Collectors.toList()))
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .nextCursor(slice.hasNext() ? idGetter.apply(content.get(content.size() - 1)) : null)
+                .build();
+    }
+
+    public static int limitSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+}
@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 
 @Data
 @Builder
@@ -37,4 +38,8 @@ public class EventPostRequestBody {
     @NotNull(message = "The organizer cannot be empty")
     private Long organizerId;
 
+    // opcional: sem limite de inscricoes quando ausente
+    @Positive(message = "The capacity of the event must be greater than zero")
+    private Integer capacity;
+
 }
@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 
 @Data
 @Builder
@@ -30,6 +31,10 @@ public class EventPutRequestBody {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DateUtil.DATE_TIME_PATTERN_DEFAULT)
     private String endDate;
 
+    // opcional: sem limite de inscricoes quando ausente
+    @Positive(message = "The capacity of the event must be greater than zero")
+    private Integer capacity;
+
     //private List<RegistrationDTO> registrations;
 
 }
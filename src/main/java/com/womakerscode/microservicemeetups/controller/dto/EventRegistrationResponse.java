@@ -1,6 +1,7 @@
 package com.womakerscode.microservicemeetups.controller.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
 import com.womakerscode.microservicemeetups.util.DateUtil;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,4 +30,6 @@ public class EventRegistrationResponse {
     @NotNull(message = "The event cannot be empty")
     private Long participantId;
 
+    private RegistrationStatusEnum status;
+
 }
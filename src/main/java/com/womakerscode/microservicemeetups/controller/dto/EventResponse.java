@@ -1,6 +1,7 @@
 package com.womakerscode.microservicemeetups.controller.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
 import com.womakerscode.microservicemeetups.util.DateUtil;
 import lombok.AllArgsConstructor;
@@ -35,6 +36,13 @@ public class EventResponse {
 
     private Long organizerId;
 
+    private Integer capacity;
+
+    // ausentes conforme o ?embed (RegistrationsEmbed)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer registrationCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<EventRegistrationResponse> registrations;
 
 }
@@ -0,0 +1,29 @@
+package com.womakerscode.microservicemeetups.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RegistrationBulkResponse {
+
+    private Long eventId;
+
+    private long created;
+
+    // criadas alem da capacidade do evento, na lista de espera
+    private long waitlisted;
+
+    private long duplicated;
+
+    private long invalid;
+
+    private List<RegistrationBulkRowResponse> rows;
+
+}
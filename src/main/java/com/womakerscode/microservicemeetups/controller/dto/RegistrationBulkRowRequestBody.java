@@ -0,0 +1,23 @@
+package com.womakerscode.microservicemeetups.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RegistrationBulkRowRequestBody {
+
+    @NotEmpty(message = "The name tag cannot be empty")
+    private String nameTag;
+
+    @NotNull(message = "The participant cannot be empty")
+    private Long participantId;
+
+}
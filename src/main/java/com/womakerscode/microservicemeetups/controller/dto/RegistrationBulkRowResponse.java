@@ -0,0 +1,29 @@
+package com.womakerscode.microservicemeetups.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RegistrationBulkRowResponse {
+
+    public enum Status {
+        CREATED, WAITLISTED, DUPLICATED, INVALID
+    }
+
+    // posicao no corpo: linha do NDJSON/CSV ou item do array JSON, a partir de 1
+    private int row;
+
+    private Long participantId;
+
+    private Status status;
+
+    private Long registrationId;
+
+    private String message;
+
+}
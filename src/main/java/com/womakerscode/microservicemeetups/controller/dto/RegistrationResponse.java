@@ -1,6 +1,7 @@
 package com.womakerscode.microservicemeetups.controller.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
 import com.womakerscode.microservicemeetups.util.DateUtil;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,4 +25,6 @@ public class RegistrationResponse {
 
     private Long participantId;
 
+    private RegistrationStatusEnum status;
+
 }
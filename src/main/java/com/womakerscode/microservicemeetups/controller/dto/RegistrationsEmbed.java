@@ -0,0 +1,71 @@
+package com.womakerscode.microservicemeetups.controller.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Inscricoes incluidas nas respostas do evento, pelo parametro {@code embed}: {@code all} (padrao, todas),
+ * {@code none} (nenhuma e sem o total), {@code count} (apenas o total) ou {@code first-N} (as N primeiras, por
+ * id, e o total). As demais ficam no GET /api/event/{id}/registrations.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RegistrationsEmbed {
+
+    public static final String ALL_VALUE = "all";
+
+    public static final RegistrationsEmbed ALL = new RegistrationsEmbed(ALL_VALUE, null, true);
+
+    private static final String FIRST_PREFIX = "first-";
+
+    private final String value;
+
+    // inscricoes de cada evento; null traz todas
+    private final Integer limit;
+
+    private final boolean count;
+
+    public static RegistrationsEmbed of(String value) {
+        switch (value) {
+            case ALL_VALUE:
+                return ALL;
+            case "none":
+                return new RegistrationsEmbed(value, 0, false);
+            case "count":
+                return new RegistrationsEmbed(value, 0, true);
+            default:
+                return new RegistrationsEmbed(value, parseFirst(value), true);
+        }
+    }
+
+    private static int parseFirst(String value) {
+        if (value.startsWith(FIRST_PREFIX)) {
+            try {
+                int limit = Integer.parseInt(value.substring(FIRST_PREFIX.length()));
+                if (limit > 0 && limit <= CursorPageResponse.MAX_SIZE) {
+                    return limit;
+                }
+            } catch (NumberFormatException e) {
+                // cai no 400 abaixo
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Invalid embed: " + value + " (expected all, none, count or first-N)");
+    }
+
+    public boolean isAll() {
+        return limit == null;
+    }
+
+    // o total das listagens e do cache ja vem preenchido; sem o count ele sai da resposta
+    public EventResponse apply(EventResponse response) {
+        if (!count) {
+            response.setRegistrationCount(null);
+        }
+        return response;
+    }
+
+}
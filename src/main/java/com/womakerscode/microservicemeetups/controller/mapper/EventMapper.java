@@ -0,0 +1,145 @@
+package com.womakerscode.microservicemeetups.controller.mapper;
+
+import com.womakerscode.microservicemeetups.controller.dto.EventPostRequestBody;
+import com.womakerscode.microservicemeetups.controller.dto.EventRegistrationResponse;
+import com.womakerscode.microservicemeetups.controller.dto.EventRequestFilter;
+import com.womakerscode.microservicemeetups.controller.dto.EventResponse;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.projection.EventSummary;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
+import com.womakerscode.microservicemeetups.repository.reactive.EventRow;
+import com.womakerscode.microservicemeetups.repository.reactive.RegistrationRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.womakerscode.microservicemeetups.controller.mapper.MapperUtil.formatDate;
+import static com.womakerscode.microservicemeetups.controller.mapper.MapperUtil.parseDate;
+
+/**
+ * Conversoes entre {@link Event} (ou {@link EventSummary} e {@link EventRow}) e os DTOs da API, feitas campo a
+ * campo (sem reflexao).
+ */
+public final class EventMapper {
+
+    private EventMapper() {
+    }
+
+    public static Event toEntity(EventPostRequestBody body) {
+        return Event.builder()
+                .title(body.getTitle())
+                .description(body.getDescription())
+                .startDate(parseDate(body.getStartDate()))
+                .endDate(parseDate(body.getEndDate()))
+                .eventTypeEnum(body.getEventTypeEnum())
+                .organizerId(body.getOrganizerId())
+                .capacity(body.getCapacity())
+                .build();
+    }
+
+    public static Event toEntity(EventRequestFilter filter) {
+        return Event.builder()
+                .id(filter.getId())
+                .title(filter.getTitle())
+                .build();
+    }
+
+    public static EventResponse toResponse(Event event) {
+        return toResponse(event, event.getRegistrations());
+    }
+
+    public static EventResponse toResponse(Event event, List<Registration> registrations) {
+        return EventResponse.builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .description(event.getDescription())
+                .creationDate(formatDate(event.getCreationDate()))
+                .startDate(formatDate(event.getStartDate()))
+                .endDate(formatDate(event.getEndDate()))
+                .eventTypeEnum(event.getEventTypeEnum())
+                .organizerId(event.getOrganizerId())
+                .capacity(event.getCapacity())
+                .registrationCount(event.getRegistrationCount())
+                .registrations(toEventRegistrationResponses(registrations, EventMapper::toEventRegistrationResponse))
+                .build();
+    }
+
+    public static EventResponse toResponse(EventSummary event) {
+        return EventResponse.builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .description(event.getDescription())
+                .creationDate(formatDate(event.getCreationDate()))
+                .startDate(formatDate(event.getStartDate()))
+                .endDate(formatDate(event.getEndDate()))
+                .eventTypeEnum(event.getEventTypeEnum())
+                .organizerId(event.getOrganizerId())
+                .capacity(event.getCapacity())
+                .registrationCount(event.getRegistrationCount())
+                .registrations(toEventRegistrationResponses(event.getRegistrations(),
+                        EventMapper::toEventRegistrationResponse))
+                .build();
+    }
+
+    public static EventResponse toResponse(EventRow event) {
+        return EventResponse.builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .description(event.getDescription())
+                .creationDate(formatDate(event.getCreationDate()))
+                .startDate(formatDate(event.getStartDate()))
+                .endDate(formatDate(event.getEndDate()))
+                .eventTypeEnum(event.getEventTypeEnum())
+                .organizerId(event.getOrganizerId())
+                .capacity(event.getCapacity())
+                .registrationCount(event.getRegistrationCount())
+                .registrations(toEventRegistrationResponses(event.getRegistrations(),
+                        EventMapper::toEventRegistrationResponse))
+                .build();
+    }
+
+    public static EventRegistrationResponse toEventRegistrationResponse(Registration registration) {
+        return EventRegistrationResponse.builder()
+                .id(registration.getId())
+                .nameTag(registration.getNameTag())
+                .participantId(registration.getParticipantId())
+                .dateOfRegistration(formatDate(registration.getDateOfRegistration()))
+                .status(registration.getStatus())
+                .build();
+    }
+
+    public static EventRegistrationResponse toEventRegistrationResponse(RegistrationSummary registration) {
+        return EventRegistrationResponse.builder()
+                .id(registration.getId())
+                .nameTag(registration.getNameTag())
+                .participantId(registration.getParticipantId())
+                .dateOfRegistration(formatDate(registration.getDateOfRegistration()))
+                .status(registration.getStatus())
+                .build();
+    }
+
+    public static EventRegistrationResponse toEventRegistrationResponse(RegistrationRow registration) {
+        return EventRegistrationResponse.builder()
+                .id(registration.getId())
+                .nameTag(registration.getNameTag())
+                .participantId(registration.getParticipantId())
+                .dateOfRegistration(formatDate(registration.getDateOfRegistration()))
+                .status(registration.getStatus())
+                .build();
+    }
+
+    private static <R> List<EventRegistrationResponse> toEventRegistrationResponses(
+            List<R> registrations, Function<R, EventRegistrationResponse> mapper) {
+        if (registrations == null) {
+            return null;
+        }
+        List<EventRegistrationResponse> responses = new ArrayList<>(registrations.size());
+        for (R registration : registrations) {
+            responses.add(mapper.apply(registration));
+        }
+        return responses;
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.womakerscode.microservicemeetups.controller.mapper;
+
+import com.womakerscode.microservicemeetups.util.DateUtil;
+
+import java.time.LocalDateTime;
+
+/**
+ * Datas nulas continuam nulas, como o ModelMapper fazia ao pular os conversores.
+ */
+final class MapperUtil {
+
+    private MapperUtil() {
+    }
+
+    static String formatDate(LocalDateTime localDateTime) {
+        return localDateTime == null ? null : DateUtil.formatLocalDateTimeToStringWithTime(localDateTime);
+    }
+
+    static LocalDateTime parseDate(String date) {
+        return date == null ? null : DateUtil.convertStringToLocalDateTimeWithTime(date);
+    }
+
+}
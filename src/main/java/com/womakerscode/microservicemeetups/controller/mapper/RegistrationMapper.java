@@ -0,0 +1,40 @@
+package com.womakerscode.microservicemeetups.controller.mapper;
+
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationResponse;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
+
+import static com.womakerscode.microservicemeetups.controller.mapper.MapperUtil.formatDate;
+
+/**
+ * Conversoes entre {@link Registration} (ou {@link RegistrationSummary}) e os DTOs da API, feitas campo a campo
+ * (sem reflexao).
+ */
+public final class RegistrationMapper {
+
+    private RegistrationMapper() {
+    }
+
+    public static RegistrationResponse toResponse(Registration registration) {
+        return RegistrationResponse.builder()
+                .id(registration.getId())
+                .nameTag(registration.getNameTag())
+                .dateOfRegistration(formatDate(registration.getDateOfRegistration()))
+                .eventId(registration.getEvent() != null ? registration.getEvent().getId() : null)
+                .participantId(registration.getParticipantId())
+                .status(registration.getStatus())
+                .build();
+    }
+
+    public static RegistrationResponse toResponse(RegistrationSummary registration) {
+        return RegistrationResponse.builder()
+                .id(registration.getId())
+                .nameTag(registration.getNameTag())
+                .dateOfRegistration(formatDate(registration.getDateOfRegistration()))
+                .eventId(registration.getEventId())
+                .participantId(registration.getParticipantId())
+                .status(registration.getStatus())
+                .build();
+    }
+
+}
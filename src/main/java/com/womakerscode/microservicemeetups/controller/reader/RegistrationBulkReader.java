@@ -0,0 +1,254 @@
+package com.womakerscode.microservicemeetups.controller.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationBulkRowRequestBody;
+import com.womakerscode.microservicemeetups.exception.BusinessException;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Le as linhas da importacao de inscricoes sob demanda, sem carregar o corpo inteiro em memoria: array
+ * JSON, NDJSON (um objeto JSON por linha) ou CSV com cabecalho contendo nameTag e participantId.
+ */
+public abstract class RegistrationBulkReader implements Closeable {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static final MediaType TEXT_CSV = MediaType.valueOf(TEXT_CSV_VALUE);
+
+    public static RegistrationBulkReader of(InputStream body, MediaType contentType, ObjectMapper objectMapper)
+            throws IOException {
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new NdjsonReader(toReader(body, contentType), objectMapper);
+        }
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return new CsvReader(toReader(body, contentType));
+        }
+        return new JsonArrayReader(objectMapper.getFactory().createParser(body), objectMapper);
+    }
+
+    /**
+     * Proxima linha do corpo, ou null quando nao ha mais linhas.
+     */
+    public abstract RegistrationBulkRow next() throws IOException;
+
+    private static BufferedReader toReader(InputStream body, MediaType contentType) {
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(body, charset));
+    }
+
+    private static class JsonArrayReader extends RegistrationBulkReader {
+
+        private final JsonParser parser;
+
+        private final ObjectMapper objectMapper;
+
+        private int row;
+
+        JsonArrayReader(JsonParser parser, ObjectMapper objectMapper) throws IOException {
+            this.parser = parser;
+            this.objectMapper = objectMapper;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BusinessException("The body must be a JSON array");
+            }
+        }
+
+        @Override
+        public RegistrationBulkRow next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            row++;
+            // le o item inteiro antes de converter, para seguir no proximo mesmo quando este e invalido
+            JsonNode node = objectMapper.readTree(parser);
+            try {
+                return RegistrationBulkRow.of(row,
+                        objectMapper.treeToValue(node, RegistrationBulkRowRequestBody.class));
+            } catch (JsonProcessingException e) {
+                return RegistrationBulkRow.malformed(row);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+
+    }
+
+    private static class NdjsonReader extends RegistrationBulkReader {
+
+        private final BufferedReader reader;
+
+        private final ObjectMapper objectMapper;
+
+        private int row;
+
+        NdjsonReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public RegistrationBulkRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                row++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                return RegistrationBulkRow.of(row, objectMapper.readValue(line, RegistrationBulkRowRequestBody.class));
+            } catch (JsonProcessingException e) {
+                return RegistrationBulkRow.malformed(row);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+    }
+
+    private static class CsvReader extends RegistrationBulkReader {
+
+        private static final String NAME_TAG_COLUMN = "nameTag";
+
+        private static final String PARTICIPANT_ID_COLUMN = "participantId";
+
+        private final BufferedReader reader;
+
+        private final int nameTagIndex;
+
+        private final int participantIdIndex;
+
+        // linha do corpo em que comeca o proximo registro; o cabecalho e a linha 1
+        private int line = 1;
+
+        CsvReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> columns = readRecord();
+            if (columns == null) {
+                columns = List.of();
+            }
+            this.nameTagIndex = indexOf(columns, NAME_TAG_COLUMN);
+            this.participantIdIndex = indexOf(columns, PARTICIPANT_ID_COLUMN);
+            if (nameTagIndex < 0 || participantIdIndex < 0) {
+                throw new BusinessException("The CSV header must contain the nameTag and participantId columns");
+            }
+        }
+
+        @Override
+        public RegistrationBulkRow next() throws IOException {
+            int row;
+            List<String> fields;
+            do {
+                row = line;
+                fields = readRecord();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() <= Math.max(nameTagIndex, participantIdIndex)) {
+                return RegistrationBulkRow.malformed(row);
+            }
+            String participantId = fields.get(participantIdIndex).trim();
+            try {
+                return RegistrationBulkRow.of(row, RegistrationBulkRowRequestBody.builder()
+                        .nameTag(fields.get(nameTagIndex))
+                        .participantId(participantId.isEmpty() ? null : Long.valueOf(participantId))
+                        .build());
+            } catch (NumberFormatException e) {
+                return RegistrationBulkRow.malformed(row);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        private static int indexOf(List<String> columns, String column) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).trim().equalsIgnoreCase(column)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Proximo registro, ou null no fim do corpo. Campos separados por virgula; entre aspas podem conter
+         * virgulas, aspas duplicadas ("") e quebras de linha, que o export mantem no nameTag: por isso o registro
+         * e lido caractere a caractere, e nao por readLine.
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c < 0) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (; c >= 0; c = reader.read()) {
+                if (quoted) {
+                    if (c != '"') {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    } else if (skipIf('"')) {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    // \n, \r\n ou \r encerram o registro
+                    if (c == '\r') {
+                        skipIf('\n');
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            line++;
+            fields.add(field.toString());
+            return fields;
+        }
+
+        // consome o proximo caractere apenas se for o esperado
+        private boolean skipIf(char expected) throws IOException {
+            reader.mark(1);
+            if (reader.read() == expected) {
+                return true;
+            }
+            reader.reset();
+            return false;
+        }
+
+    }
+
+}
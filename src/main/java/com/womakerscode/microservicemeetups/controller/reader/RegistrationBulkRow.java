@@ -0,0 +1,28 @@
+package com.womakerscode.microservicemeetups.controller.reader;
+
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationBulkRowRequestBody;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Linha lida do corpo da importacao: o conteudo convertido ou o motivo de nao ter sido possivel ler.
+ */
+@Getter
+@AllArgsConstructor
+public class RegistrationBulkRow {
+
+    private final int row;
+
+    private final RegistrationBulkRowRequestBody body;
+
+    private final String error;
+
+    static RegistrationBulkRow of(int row, RegistrationBulkRowRequestBody body) {
+        return new RegistrationBulkRow(row, body, null);
+    }
+
+    static RegistrationBulkRow malformed(int row) {
+        return new RegistrationBulkRow(row, null, "The row is malformed");
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.womakerscode.microservicemeetups.controller.render;
+
+import com.womakerscode.microservicemeetups.repository.projection.EventVersion;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * ETags fortes derivados das colunas de versao: mudam a cada alteracao do recurso e podem ser conferidos
+ * com uma consulta a versao, sem carregar a entidade nem serializar a resposta.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // o GET do evento inclui as inscricoes: as duas versoes compoem o ETag
+    public static String of(EventVersion version) {
+        return of(version.getVersion(), version.getRegistrationsVersion());
+    }
+
+    // representacoes parciais do mesmo recurso (ex.: ?embed=first-10) tem ETag proprio
+    public static String of(EventVersion version, String variant) {
+        return "\"" + version.getVersion() + "." + version.getRegistrationsVersion() + "-" + variant + "\"";
+    }
+
+    public static String of(long version, long registrationsVersion) {
+        return "\"" + version + "." + registrationsVersion + "\"";
+    }
+
+    /**
+     * Avalia um If-Match com comparacao forte: {@code *} ou a lista de ETags contendo o atual. Sem o header
+     * a requisicao e incondicional.
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        return matches(ifMatch, candidate -> candidate.equals(etag));
+    }
+
+    /**
+     * If-Match do evento: aceita tambem o ETag de uma representacao parcial ({@code ?embed}) das versoes atuais,
+     * que descreve o mesmo estado do recurso.
+     */
+    public static boolean matches(String ifMatch, EventVersion version) {
+        String etag = of(version);
+        String variantPrefix = etag.substring(0, etag.length() - 1) + "-";
+        return matches(ifMatch, candidate -> candidate.equals(etag) || candidate.startsWith(variantPrefix));
+    }
+
+    private static boolean matches(String ifMatch, Predicate<String> current) {
+        if (ifMatch == null) {
+            return true;
+        }
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || current.test(candidate));
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.womakerscode.microservicemeetups.controller.render;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.womakerscode.microservicemeetups.config.CacheConfig;
+import com.womakerscode.microservicemeetups.controller.dto.EventResponse;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationsEmbed;
+import com.womakerscode.microservicemeetups.controller.mapper.EventMapper;
+import com.womakerscode.microservicemeetups.service.EventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Optional;
+
+/**
+ * {@link EventResponse} completo (evento e inscricoes) do GET /api/event/{id}, guardado ja serializado.
+ * As alteracoes no evento e nas suas inscricoes removem a entrada do cache
+ * ({@link CacheConfig#EVENT_RESPONSE_CACHE}).
+ */
+@Component
+@RequiredArgsConstructor
+public class EventResponseRenderer {
+
+    private final EventService eventService;
+
+    private final ObjectMapper objectMapper;
+
+    @Cacheable(cacheNames = CacheConfig.EVENT_RESPONSE_CACHE, unless = "#result == null")
+    public Optional<RenderedResponse> render(Long id) {
+        // a versao e lida antes do conteudo: numa alteracao concorrente o ETag fica mais antigo que o corpo, e a
+        // proxima revalidacao devolve o corpo de novo em vez de um 304 indevido
+        return eventService.getVersion(id)
+                .flatMap(version -> eventService.getById(id)
+                        .map(event -> EventMapper.toResponse(event, eventService.getRegistrations(id)))
+                        // o evento em cache nao acompanha as inscricoes; o total vem da mesma leitura das versoes
+                        .map(response -> {
+                            response.setRegistrationCount(version.getRegistrationCount());
+                            return new RenderedResponse(serialize(response), ETags.of(version));
+                        }));
+    }
+
+    /**
+     * Variantes do {@code ?embed} sem a lista completa: nao ficam em cache, e as primeiras inscricoes vem de uma
+     * consulta limitada pelo indice do evento. {@link RegistrationsEmbed#ALL} usa o {@link #render(Long)}.
+     */
+    public Optional<RenderedResponse> render(Long id, RegistrationsEmbed embed) {
+        return eventService.getVersion(id)
+                .flatMap(version -> eventService.getById(id)
+                        .map(event -> {
+                            EventResponse response = EventMapper.toResponse(event, null);
+                            if (embed.getLimit() > 0) {
+                                response.setRegistrations(eventService.getRegistrations(id, 0L, embed.getLimit())
+                                        .map(EventMapper::toEventRegistrationResponse)
+                                        .getContent());
+                            }
+                            response.setRegistrationCount(embed.isCount() ? version.getRegistrationCount() : null);
+                            return new RenderedResponse(serialize(response), ETags.of(version, embed.getValue()));
+                        }));
+    }
+
+    private byte[] serialize(EventResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.womakerscode.microservicemeetups.controller.render;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Corpo JSON ja serializado de uma resposta e o ETag da versao que ele representa ({@link ETags}).
+ */
+@Getter
+@AllArgsConstructor
+public class RenderedResponse {
+
+    private final byte[] body;
+
+    private final String eTag;
+
+}
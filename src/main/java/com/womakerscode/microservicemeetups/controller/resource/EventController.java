@@ -1,19 +1,30 @@
 package com.womakerscode.microservicemeetups.controller.resource;
 
+import com.womakerscode.microservicemeetups.controller.dto.CursorPageResponse;
 import com.womakerscode.microservicemeetups.controller.dto.EventPostRequestBody;
-import com.womakerscode.microservicemeetups.controller.dto.EventPutRequestBody;
 import com.womakerscode.microservicemeetups.controller.dto.EventRegistrationResponse;
+import com.womakerscode.microservicemeetups.controller.dto.EventPutRequestBody;
 import com.womakerscode.microservicemeetups.controller.dto.EventRequestFilter;
 import com.womakerscode.microservicemeetups.controller.dto.EventResponse;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationsEmbed;
+import com.womakerscode.microservicemeetups.controller.mapper.EventMapper;
+import com.womakerscode.microservicemeetups.controller.render.ETags;
+import com.womakerscode.microservicemeetups.controller.render.EventResponseRenderer;
+import com.womakerscode.microservicemeetups.controller.render.RenderedResponse;
 import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.repository.projection.EventSummary;
+import com.womakerscode.microservicemeetups.repository.projection.EventVersion;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
 import com.womakerscode.microservicemeetups.service.EventService;
-import com.womakerscode.microservicemeetups.util.DateUtil;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,14 +32,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.womakerscode.microservicemeetups.util.DateUtil.convertStringToLocalDateTimeWithTime;
@@ -38,79 +51,166 @@ import static com.womakerscode.microservicemeetups.util.DateUtil.convertStringTo
 @RequiredArgsConstructor
 public class EventController {
 
+    // o PUT devolve so o total de inscricoes: a lista completa fica no GET, em cache
+    private static final String UPDATE_EMBED = "count";
+
     private final EventService eventService;
-    private final ModelMapper modelMapper;
+
+    private final EventResponseRenderer eventResponseRenderer;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public EventResponse create(@RequestBody @Valid EventPostRequestBody eventPostRequestBody) {
-        Event entity = modelMapper.map(eventPostRequestBody, Event.class);
+        Event entity = EventMapper.toEntity(eventPostRequestBody);
         eventService.validateTheEventPeriod(entity);
         entity.setCreationDate(LocalDateTime.now());
         entity = eventService.save(entity);
-        return modelMapper.map(entity, EventResponse.class);
+        return EventMapper.toResponse(entity);
     }
 
-    @GetMapping("{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public EventResponse get(@PathVariable Long id) {
-        return eventService
-                .getById(id)
-                .map(event -> getFindEventResponse(event))
+    /**
+     * Devolve o JSON ja renderizado e guardado em cache, com ETag. Um If-None-Match e conferido apenas com a
+     * consulta as versoes do evento: se igual, 304 sem carregar nem serializar nada. Com {@code embed} diferente
+     * de {@code all} a resposta traz parte ou nenhuma das inscricoes, fora do cache.
+     */
+    @GetMapping(value = "{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> get(@PathVariable Long id,
+                                      @RequestParam(defaultValue = RegistrationsEmbed.ALL_VALUE) String embed,
+                                      WebRequest webRequest) {
+        RegistrationsEmbed registrations = RegistrationsEmbed.of(embed);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            EventVersion version = eventService.getVersion(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            String etag = registrations.isAll() ? ETags.of(version) : ETags.of(version, registrations.getValue());
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+        }
+        RenderedResponse response = (registrations.isAll()
+                ? eventResponseRenderer.render(id)
+                : eventResponseRenderer.render(id, registrations))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        return ResponseEntity.ok()
+                .eTag(response.getETag())
+                .body(response.getBody());
     }
 
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
+        EventVersion version = eventService.getVersion(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         Event event = eventService.getById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        eventService.validateEventWithRegistrationsForDelete(event);
-        eventService.delete(event);
+        // o delete confere a versao: usa a do banco, nao a da copia em cache
+        eventService.delete(event.toBuilder().version(version.getVersion()).build());
     }
 
-    @PutMapping("{id}")
-    public EventResponse update(@PathVariable Long id,
-                                @RequestBody @Valid EventPutRequestBody eventPutRequestBody) {
+    /**
+     * Atualizacao com controle otimista: a versao e lida do banco (o getById pode vir do cache) e conferida
+     * no update, que falha com 409 se outra requisicao gravou antes. Um If-Match diferente do ETag atual
+     * responde 412 sem gravar. A resposta traz as inscricoes pedidas no {@code embed}, por padrao apenas o total.
+     */
+    @PutMapping(value = "{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> update(@PathVariable Long id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                         @RequestParam(defaultValue = UPDATE_EMBED) String embed,
+                                         @RequestBody @Valid EventPutRequestBody eventPutRequestBody) {
+        RegistrationsEmbed registrations = RegistrationsEmbed.of(embed);
+        EventVersion version = eventService.getVersion(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (!ETags.matches(ifMatch, version)) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "The event was changed");
+        }
+        // altera uma copia: a instancia devolvida pelo getById e a mesma guardada no cache
         return eventService.getById(id)
-                .map(event -> {
-                    event.setTitle(eventPutRequestBody.getTitle());
-                    event.setDescription(eventPutRequestBody.getDescription());
-                    event.setStartDate(convertStringToLocalDateTimeWithTime(eventPutRequestBody.getStartDate()));
-                    event.setEndDate(convertStringToLocalDateTimeWithTime(eventPutRequestBody.getEndDate()));
+                .map(cached -> {
+                    // o merge copia todas as propriedades para a entidade gerenciada: os contadores da copia em
+                    // cache (inscricoes nao removem o evento do cache) sao trocados pelos lidos do banco
+                    Event event = cached.toBuilder()
+                            .version(version.getVersion())
+                            .registrationsVersion(version.getRegistrationsVersion())
+                            .registrationCount(version.getRegistrationCount())
+                            .title(eventPutRequestBody.getTitle())
+                            .description(eventPutRequestBody.getDescription())
+                            .startDate(convertStringToLocalDateTimeWithTime(eventPutRequestBody.getStartDate()))
+                            .endDate(convertStringToLocalDateTimeWithTime(eventPutRequestBody.getEndDate()))
+                            .capacity(eventPutRequestBody.getCapacity())
+                            .build();
                     eventService.validateTheEventPeriod(event);
-                    event = eventService.update(event);
-                    return modelMapper.map(event, EventResponse.class);
+                    eventService.update(event);
+                    // a resposta e renderizada como no GET, com o ETag das versoes gravadas para o If-Match seguinte
+                    RenderedResponse response = (registrations.isAll()
+                            ? eventResponseRenderer.render(id)
+                            : eventResponseRenderer.render(id, registrations))
+                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+                    return ResponseEntity.ok()
+                            .eTag(response.getETag())
+                            .body(response.getBody());
                 })
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * Inscricoes do evento paginadas por cursor (id): a proxima pagina e pedida com {@code after} igual ao
+     * {@code nextCursor}, sem offset e sem count.
+     */
+    @GetMapping("{id}/registrations")
+    public CursorPageResponse<EventRegistrationResponse> findRegistrations(
+            @PathVariable Long id, @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = CursorPageResponse.DEFAULT_SIZE) int size) {
+        eventService.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        Slice<RegistrationSummary> result = eventService.getRegistrations(id, after,
+                CursorPageResponse.limitSize(size));
+        return CursorPageResponse.of(result, EventMapper::toEventRegistrationResponse, RegistrationSummary::getId);
+    }
+
     @GetMapping
-    public Page<EventResponse> find(EventRequestFilter eventRequestFilter, Pageable pageRequest) {
-        Event filter = modelMapper.map(eventRequestFilter, Event.class);
-        Page<Event> result = eventService.find(filter, pageRequest);
+    public Page<EventResponse> find(EventRequestFilter eventRequestFilter, Pageable pageRequest,
+                                    @RequestParam(defaultValue = RegistrationsEmbed.ALL_VALUE) String embed) {
+        RegistrationsEmbed registrations = RegistrationsEmbed.of(embed);
+        Event filter = EventMapper.toEntity(eventRequestFilter);
+        Page<EventSummary> result = eventService.find(filter, pageRequest, registrations.getLimit());
         List<EventResponse> events = result
                 .getContent()
                 .stream()
-                .map(entity -> getFindEventResponse(entity)).collect(Collectors.toList());
+                .map(EventMapper::toResponse)
+                .map(registrations::apply)
+                .collect(Collectors.toList());
         return new PageImpl<EventResponse>(events, pageRequest, result.getTotalElements());
     }
 
-    private EventResponse getFindEventResponse(Event event) {
-        EventResponse eventResponse;
-        eventResponse = modelMapper.map(event, EventResponse.class);
-        Optional.ofNullable(event.getRegistrations()).ifPresent( registrations -> {
-            eventResponse.setRegistrations(registrations.stream().map(registration -> {
-                return EventRegistrationResponse.builder()
-                        .id(registration.getId())
-                        .nameTag(registration.getNameTag())
-                        .participantId(registration.getParticipantId())
-                        .dateOfRegistration(DateUtil.formatLocalDateTimeToStringWithTime(
-                                registration.getDateOfRegistration()))
-                        .build();
-            }).collect(Collectors.toList()));
-        });
-        return eventResponse;
+    @GetMapping(params = {"count=none", "!after"})
+    public Slice<EventResponse> findWithoutCount(EventRequestFilter eventRequestFilter, Pageable pageRequest,
+                                                 @RequestParam(defaultValue = RegistrationsEmbed.ALL_VALUE)
+                                                         String embed) {
+        RegistrationsEmbed registrations = RegistrationsEmbed.of(embed);
+        Event filter = EventMapper.toEntity(eventRequestFilter);
+        return eventService.findSlice(filter, pageRequest, registrations.getLimit())
+                .map(event -> registrations.apply(EventMapper.toResponse(event)));
+    }
+
+    @GetMapping(params = {"count=cached", "!after"})
+    public Page<EventResponse> findWithCachedCount(EventRequestFilter eventRequestFilter, Pageable pageRequest,
+                                                   @RequestParam(defaultValue = RegistrationsEmbed.ALL_VALUE)
+                                                           String embed) {
+        RegistrationsEmbed registrations = RegistrationsEmbed.of(embed);
+        Event filter = EventMapper.toEntity(eventRequestFilter);
+        return eventService.findWithCachedCount(filter, pageRequest, registrations.getLimit())
+                .map(event -> registrations.apply(EventMapper.toResponse(event)));
+    }
+
+    @GetMapping(params = "after")
+    public CursorPageResponse<EventResponse> findAfter(
+            EventRequestFilter eventRequestFilter, @RequestParam Long after,
+            @RequestParam(defaultValue = CursorPageResponse.DEFAULT_SIZE) int size,
+            @RequestParam(defaultValue = RegistrationsEmbed.ALL_VALUE) String embed) {
+        RegistrationsEmbed registrations = RegistrationsEmbed.of(embed);
+        Event filter = EventMapper.toEntity(eventRequestFilter);
+        Slice<EventSummary> result = eventService.findAfter(filter, after, CursorPageResponse.limitSize(size),
+                registrations.getLimit());
+        return CursorPageResponse.of(result, event -> registrations.apply(EventMapper.toResponse(event)),
+                EventSummary::getId);
     }
 
 }
@@ -0,0 +1,52 @@
+package com.womakerscode.microservicemeetups.controller.resource;
+
+import com.womakerscode.microservicemeetups.controller.dto.CursorPageResponse;
+import com.womakerscode.microservicemeetups.controller.dto.EventResponse;
+import com.womakerscode.microservicemeetups.controller.mapper.EventMapper;
+import com.womakerscode.microservicemeetups.service.ReactiveEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leitura dos eventos pelo R2DBC, com o mesmo {@link EventResponse} do {@link EventController}. Servida pelo
+ * Spring MVC como resposta assincrona: a thread do Tomcat e liberada enquanto a consulta roda. Com Accept
+ * application/x-ndjson a listagem e escrita um evento por linha, conforme as linhas chegam do banco; com
+ * application/json, como um array.
+ */
+@ConditionalOnProperty(name = "meetups.r2dbc.enabled", havingValue = "true")
+@RestController
+@RequestMapping("/api/reactive/event")
+@RequiredArgsConstructor
+public class ReactiveEventController {
+
+    private final ReactiveEventService reactiveEventService;
+
+    @GetMapping(value = "{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<EventResponse> get(@PathVariable Long id) {
+        return reactiveEventService.getById(id)
+                .map(EventMapper::toResponse)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    /**
+     * Eventos com id maior que {@code after}, em ordem de id; o proximo cursor e o id do ultimo recebido.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<EventResponse> find(@RequestParam(required = false) String title,
+                                    @RequestParam(defaultValue = "0") long after,
+                                    @RequestParam(defaultValue = CursorPageResponse.DEFAULT_SIZE) int size) {
+        return reactiveEventService.find(title, after, CursorPageResponse.limitSize(size))
+                .map(EventMapper::toResponse);
+    }
+
+}
@@ -1,20 +1,36 @@
 package com.womakerscode.microservicemeetups.controller.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.womakerscode.microservicemeetups.controller.dto.CursorPageResponse;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationBulkResponse;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationBulkRowRequestBody;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationBulkRowResponse;
 import com.womakerscode.microservicemeetups.controller.dto.RegistrationPostRequestBody;
 import com.womakerscode.microservicemeetups.controller.dto.RegistrationPutRequestBody;
 import com.womakerscode.microservicemeetups.controller.dto.RegistrationRequestFilter;
 import com.womakerscode.microservicemeetups.controller.dto.RegistrationResponse;
+import com.womakerscode.microservicemeetups.controller.mapper.EventMapper;
+import com.womakerscode.microservicemeetups.controller.mapper.RegistrationMapper;
+import com.womakerscode.microservicemeetups.controller.reader.RegistrationBulkReader;
+import com.womakerscode.microservicemeetups.controller.reader.RegistrationBulkRow;
+import com.womakerscode.microservicemeetups.controller.render.ETags;
+import com.womakerscode.microservicemeetups.controller.writer.RegistrationExportWriter;
 import com.womakerscode.microservicemeetups.model.entity.Event;
 import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
 import com.womakerscode.microservicemeetups.service.EventService;
 import com.womakerscode.microservicemeetups.service.RegistrationService;
 import com.womakerscode.microservicemeetups.util.DateUtil;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -22,14 +38,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -37,15 +65,24 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RegistrationController {
 
+    // inscricoes gravadas por chamada ao service na importacao em lote
+    private static final int BULK_CHUNK_SIZE = 1_000;
+
     private final RegistrationService registrationService;
 
     private final EventService eventService;
 
-    private final ModelMapper modelMapper;
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
 
+    /**
+     * Com o evento lotado a inscricao entra na lista de espera (202), e e confirmada quando uma vaga for
+     * liberada.
+     */
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public RegistrationResponse create(@RequestBody @Valid RegistrationPostRequestBody registrationPostRequestBody) {
+    public ResponseEntity<RegistrationResponse> create(
+            @RequestBody @Valid RegistrationPostRequestBody registrationPostRequestBody) {
 
         Event event = eventService.getById(registrationPostRequestBody.getEventId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
@@ -58,19 +95,124 @@ public class RegistrationController {
                 .build();
 
         entity = registrationService.save(entity);
-        return modelMapper.map(entity, RegistrationResponse.class);
+        HttpStatus status = entity.getStatus() == RegistrationStatusEnum.WAITLISTED
+                ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(RegistrationMapper.toResponse(entity));
+    }
+
+    /**
+     * Importacao de inscricoes de um evento: array JSON, NDJSON ou CSV, lidos sob demanda. O evento e
+     * buscado uma vez, participantes repetidos no corpo sao descartados em memoria e as inscricoes sao
+     * gravadas em lotes; a resposta traz o resultado de cada linha.
+     */
+    @PostMapping(value = "bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            RegistrationBulkReader.TEXT_CSV_VALUE})
+    public RegistrationBulkResponse createBulk(@RequestParam Long eventId,
+                                               @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                               InputStream body) throws IOException {
+
+        Event event = eventService.getById(eventId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
+
+        List<RegistrationBulkRowResponse> rows = new ArrayList<>();
+        Set<Long> participants = new HashSet<>();
+        List<Registration> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+        List<RegistrationBulkRowResponse> chunkRows = new ArrayList<>(BULK_CHUNK_SIZE);
+        LocalDateTime dateOfRegistration = LocalDateTime.now();
+
+        try (RegistrationBulkReader reader = RegistrationBulkReader.of(body, contentType, objectMapper)) {
+            for (RegistrationBulkRow row = reader.next(); row != null; row = reader.next()) {
+                RegistrationBulkRowResponse rowResponse = RegistrationBulkRowResponse.builder()
+                        .row(row.getRow())
+                        .participantId(row.getBody() != null ? row.getBody().getParticipantId() : null)
+                        .build();
+                rows.add(rowResponse);
+
+                String error = row.getError() != null ? row.getError() : validate(row.getBody());
+                if (error != null) {
+                    rowResponse.setStatus(RegistrationBulkRowResponse.Status.INVALID);
+                    rowResponse.setMessage(error);
+                } else if (!participants.add(row.getBody().getParticipantId())) {
+                    rowResponse.setStatus(RegistrationBulkRowResponse.Status.DUPLICATED);
+                    rowResponse.setMessage("Registration already created");
+                } else {
+                    chunk.add(Registration.builder()
+                            .nameTag(row.getBody().getNameTag())
+                            .event(event)
+                            .participantId(row.getBody().getParticipantId())
+                            .dateOfRegistration(dateOfRegistration)
+                            .build());
+                    chunkRows.add(rowResponse);
+                    if (chunk.size() == BULK_CHUNK_SIZE) {
+                        saveChunk(eventId, chunk, chunkRows);
+                    }
+                }
+            }
+        }
+        saveChunk(eventId, chunk, chunkRows);
+
+        Map<RegistrationBulkRowResponse.Status, Long> totals = rows.stream()
+                .collect(Collectors.groupingBy(RegistrationBulkRowResponse::getStatus, Collectors.counting()));
+        return RegistrationBulkResponse.builder()
+                .eventId(eventId)
+                .created(totals.getOrDefault(RegistrationBulkRowResponse.Status.CREATED, 0L))
+                .waitlisted(totals.getOrDefault(RegistrationBulkRowResponse.Status.WAITLISTED, 0L))
+                .duplicated(totals.getOrDefault(RegistrationBulkRowResponse.Status.DUPLICATED, 0L))
+                .invalid(totals.getOrDefault(RegistrationBulkRowResponse.Status.INVALID, 0L))
+                .rows(rows)
+                .build();
     }
 
+    /**
+     * Exportacao das inscricoes de um evento em CSV (padrao) ou NDJSON, conforme o Accept. As linhas vem de uma
+     * unica consulta em stream e sao escritas na resposta a medida que chegam, fora da thread da requisicao:
+     * memoria constante e sem as paginas e o count das listagens.
+     */
+    @GetMapping(value = "export", produces = {RegistrationBulkReader.TEXT_CSV_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Long eventId,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT,
+                                                                defaultValue = MediaType.ALL_VALUE) String accept) {
+
+        eventService.getById(eventId).orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST));
+
+        MediaType format = RegistrationExportWriter.select(MediaType.parseMediaTypes(accept));
+        boolean ndjson = MediaType.APPLICATION_NDJSON.equals(format);
+        StreamingResponseBody body = output -> {
+            try (RegistrationExportWriter writer = RegistrationExportWriter.of(output, format, objectMapper)) {
+                registrationService.exportByEvent(eventId, registration -> {
+                    try {
+                        writer.write(EventMapper.toEventRegistrationResponse(registration));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : RegistrationExportWriter.TEXT_CSV_UTF8)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"event-" + eventId
+                        + "-registrations." + (ndjson ? "ndjson" : "csv") + "\"")
+                .body(body);
+    }
+
+    /**
+     * Responde com o ETag da versao da inscricao; um If-None-Match e conferido apenas com a consulta a versao.
+     */
     @GetMapping("{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public RegistrationResponse get(@PathVariable Long id) {
+    public ResponseEntity<RegistrationResponse> get(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Long version = registrationService.getVersion(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            if (webRequest.checkNotModified(ETags.of(version))) {
+                return null;
+            }
+        }
         return registrationService
                 .getRegistrationById(id)
-                .map(registration -> {
-                    //modelMapper.map(registration, RegistrationResponse.class);
-                    registration.setEvent(modelMapper.map(registration.getEvent(), Event.class));
-                    return modelMapper.map(registration, RegistrationResponse.class);
-                })
+                .map(registration -> ResponseEntity.ok()
+                        .eTag(ETags.of(registration.getVersion()))
+                        .body(RegistrationMapper.toResponse(registration)))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
@@ -82,16 +224,27 @@ public class RegistrationController {
         registrationService.delete(registration);
     }
 
+    /**
+     * Atualizacao com controle otimista: o update confere a versao lida e falha com 409 se outra requisicao
+     * gravou antes. Um If-Match diferente do ETag atual responde 412 sem gravar.
+     */
     @PutMapping("{id}")
-    public RegistrationResponse update(@PathVariable Long id
+    public ResponseEntity<RegistrationResponse> update(@PathVariable Long id
+            , @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
             , @RequestBody @Valid RegistrationPutRequestBody registrationRequest) {
 
         return registrationService.getRegistrationById(id)
                 .map(registration -> {
+                    if (!ETags.matches(ifMatch, ETags.of(registration.getVersion()))) {
+                        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                                "The registration was changed");
+                    }
                     // so pode alterar o nome do cracha
                     registration.setNameTag(registrationRequest.getNameTag());
                     registration = registrationService.update(registration);
-                    return modelMapper.map(registration, RegistrationResponse.class);
+                    return ResponseEntity.ok()
+                            .eTag(ETags.of(registration.getVersion()))
+                            .body(RegistrationMapper.toResponse(registration));
                 })
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
@@ -99,6 +252,65 @@ public class RegistrationController {
     @GetMapping
     public Page<RegistrationResponse> find(RegistrationRequestFilter dto, Pageable pageRequest) {
 
+        Registration filter = toFilter(dto);
+
+        Page<RegistrationSummary> result = registrationService.find(filter, pageRequest);
+
+        List<RegistrationResponse> list = result.getContent()
+                .stream()
+                .map(RegistrationMapper::toResponse)
+                .collect(Collectors.toList());
+
+        return new PageImpl<RegistrationResponse>(list, pageRequest, result.getTotalElements());
+    }
+
+    @GetMapping(params = {"count=none", "!after"})
+    public Slice<RegistrationResponse> findWithoutCount(RegistrationRequestFilter dto, Pageable pageRequest) {
+        return registrationService.findSlice(toFilter(dto), pageRequest).map(RegistrationMapper::toResponse);
+    }
+
+    @GetMapping(params = {"count=cached", "!after"})
+    public Page<RegistrationResponse> findWithCachedCount(RegistrationRequestFilter dto, Pageable pageRequest) {
+        return registrationService.findWithCachedCount(toFilter(dto), pageRequest).map(RegistrationMapper::toResponse);
+    }
+
+    @GetMapping(params = "after")
+    public CursorPageResponse<RegistrationResponse> findAfter(
+            RegistrationRequestFilter dto, @RequestParam Long after,
+            @RequestParam(defaultValue = CursorPageResponse.DEFAULT_SIZE) int size) {
+        Slice<RegistrationSummary> result = registrationService.findAfter(toFilter(dto), after,
+                CursorPageResponse.limitSize(size));
+        return CursorPageResponse.of(result, RegistrationMapper::toResponse, RegistrationSummary::getId);
+    }
+
+    // inscricoes que o service nao criou (participante ja inscrito no banco) voltam sem id
+    private void saveChunk(Long eventId, List<Registration> chunk, List<RegistrationBulkRowResponse> chunkRows) {
+        registrationService.saveAll(eventId, chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            Registration registration = chunk.get(i);
+            RegistrationBulkRowResponse rowResponse = chunkRows.get(i);
+            if (registration.getId() != null) {
+                rowResponse.setStatus(registration.getStatus() == RegistrationStatusEnum.WAITLISTED
+                        ? RegistrationBulkRowResponse.Status.WAITLISTED : RegistrationBulkRowResponse.Status.CREATED);
+                rowResponse.setRegistrationId(registration.getId());
+            } else {
+                rowResponse.setStatus(RegistrationBulkRowResponse.Status.DUPLICATED);
+                rowResponse.setMessage("Registration already created");
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private String validate(RegistrationBulkRowRequestBody row) {
+        return validator.validate(row).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Registration toFilter(RegistrationRequestFilter dto) {
         Registration filter = Registration.builder()
                 .id(dto.getId())
                 .nameTag(dto.getNameTag())
@@ -108,15 +320,7 @@ public class RegistrationController {
         if (dto.getDateOfRegistration() != null) {
             filter.setDateOfRegistration(DateUtil.convertStringToLocalDateTimeWithTime(dto.getDateOfRegistration()));
         }
-
-        Page<Registration> result = registrationService.find(filter, pageRequest);
-
-        List<RegistrationResponse> list = result.getContent()
-                .stream()
-                .map(entity -> modelMapper.map(entity, RegistrationResponse.class))
-                .collect(Collectors.toList());
-
-        return new PageImpl<RegistrationResponse>(list, pageRequest, result.getTotalElements());
+        return filter;
     }
 
 }
@@ -0,0 +1,124 @@
+package com.womakerscode.microservicemeetups.controller.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.womakerscode.microservicemeetups.controller.dto.EventRegistrationResponse;
+import com.womakerscode.microservicemeetups.controller.reader.RegistrationBulkReader;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escreve as inscricoes exportadas a medida que sao lidas, sem montar o corpo em memoria: CSV com cabecalho
+ * (aceito de volta pela importacao em lote) ou NDJSON, um objeto JSON por linha.
+ */
+public abstract class RegistrationExportWriter implements Closeable {
+
+    public static final MediaType TEXT_CSV_UTF8 = new MediaType(RegistrationBulkReader.TEXT_CSV,
+            StandardCharsets.UTF_8);
+
+    final Writer writer;
+
+    RegistrationExportWriter(OutputStream output) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    public static RegistrationExportWriter of(OutputStream output, MediaType contentType, ObjectMapper objectMapper)
+            throws IOException {
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return new NdjsonWriter(output, objectMapper);
+        }
+        return new CsvWriter(output);
+    }
+
+    /**
+     * Formato da exportacao conforme o Accept, na ordem de preferencia do cliente; CSV quando ambos sao
+     * aceitos (ex.: {@code *}{@code /*}).
+     */
+    public static MediaType select(List<MediaType> accepted) {
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.includes(RegistrationBulkReader.TEXT_CSV)) {
+                return RegistrationBulkReader.TEXT_CSV;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_NDJSON)) {
+                return MediaType.APPLICATION_NDJSON;
+            }
+        }
+        return RegistrationBulkReader.TEXT_CSV;
+    }
+
+    public abstract void write(EventRegistrationResponse registration) throws IOException;
+
+    // a resposta e fechada pelo container; aqui so descarrega o buffer
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private static class NdjsonWriter extends RegistrationExportWriter {
+
+        private final ObjectMapper objectMapper;
+
+        NdjsonWriter(OutputStream output, ObjectMapper objectMapper) {
+            super(output);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public void write(EventRegistrationResponse registration) throws IOException {
+            writer.write(objectMapper.writeValueAsString(registration));
+            writer.write('\n');
+        }
+
+    }
+
+    private static class CsvWriter extends RegistrationExportWriter {
+
+        private static final String HEADER = "id,nameTag,participantId,dateOfRegistration,status";
+
+        CsvWriter(OutputStream output) throws IOException {
+            super(output);
+            writer.write(HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(EventRegistrationResponse registration) throws IOException {
+            writeField(registration.getId());
+            writer.write(',');
+            writeField(registration.getNameTag());
+            writer.write(',');
+            writeField(registration.getParticipantId());
+            writer.write(',');
+            writeField(registration.getDateOfRegistration());
+            writer.write(',');
+            writeField(registration.getStatus());
+            writer.write('\n');
+        }
+
+        // entre aspas quando contem virgula, aspas ou quebra de linha, com as aspas duplicadas ("")
+        private void writeField(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String field = value.toString();
+            if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0
+                    && field.indexOf('\r') < 0) {
+                writer.write(field);
+                return;
+            }
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+    }
+
+}
@@ -5,31 +5,53 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.CascadeType;
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Entity
-@Table
+@Table(indexes = @Index(name = "idx_event_title_normalized", columnList = "title_normalized"),
+        // valida a duplicidade no proprio insert do cadastro
+        uniqueConstraints = @UniqueConstraint(name = Event.UNIQUE_TITLE_PERIOD_ORGANIZER,
+                columnNames = {"title", "start_date", "end_date", "organizer_id"}))
 public class Event {
 
+    public static final String UNIQUE_TITLE_PERIOD_ORGANIZER = "uk_event_title_period_organizer";
+
+    // V6__add_event_capacity.sql: o contador de inscricoes nunca passa da capacidade
+    public static final String CHECK_REGISTRATION_COUNT = "ck_event_registration_count";
+
     @Id
     @Column(name = "event_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // ids reservados em blocos pela sequence (PooledSequenceGenerator), o que permite inserir em lote
+    @GeneratedValue(generator = "event_sequence")
+    @GenericGenerator(name = "event_sequence",
+            strategy = "com.womakerscode.microservicemeetups.model.support.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "event_sequence"))
     private Long id;
 
     @Column
@@ -38,6 +60,16 @@ public class Event {
     @Column
     private String description;
 
+    // titulo em minusculas e seus trigramas, mantidos pelo EventServiceImpl para a busca por titulo
+    @Column(name = "title_normalized")
+    private String titleNormalized;
+
+    @ElementCollection
+    @CollectionTable(name = "event_title_trigram", joinColumns = @JoinColumn(name = "event_id"),
+            indexes = @Index(name = "idx_event_title_trigram", columnList = "trigram, event_id"))
+    @Column(name = "trigram", length = 3, nullable = false)
+    private Set<String> titleTrigrams;
+
     @Column(name = "creation_date")
     private LocalDateTime creationDate;
 
@@ -54,6 +86,24 @@ public class Event {
     @Column(name = "organizer_id")
     private Long organizerId;
 
+    // vagas do evento; sem limite quando nulo
+    @Column
+    private Integer capacity;
+
+    // mantido junto com a registrationsVersion, pelo mesmo update que confere a capacidade
+    @Column(name = "registration_count", insertable = false, updatable = false)
+    private int registrationCount;
+
+    @Version
+    private long version;
+
+    // incrementada pelo RegistrationServiceImpl a cada inscricao criada, alterada ou removida; nunca gravada pelo
+    // mapeamento, para que o merge de um Event desatualizado nao a sobrescreva
+    @Column(name = "registrations_version", insertable = false, updatable = false)
+    private long registrationsVersion;
+
+    // na listagem, as inscricoes dos eventos da pagina sao carregadas juntas (evita o N+1)
+    @BatchSize(size = 100)
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "event")
     private List<Registration> registrations;
 
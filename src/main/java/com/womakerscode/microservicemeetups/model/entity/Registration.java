@@ -1,46 +1,98 @@
 package com.womakerscode.microservicemeetups.model.entity;
 
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.ForeignKey;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Entity
-@Table
+@Table(indexes = {@Index(name = "idx_registration_name_tag_normalized", columnList = "name_tag_normalized"),
+        // proxima inscricao da lista de espera do evento
+        @Index(name = "idx_registration_event_status", columnList = "event_id, status, date_of_registration"),
+        // inscricoes do evento por id, na paginacao por cursor
+        @Index(name = "idx_registration_event_id", columnList = "event_id, registration_id")},
+        // consulta do findExistingRegistrationEvent, executada a cada inscricao
+        uniqueConstraints = @UniqueConstraint(name = Registration.UNIQUE_EVENT_PARTICIPANT,
+                columnNames = {"event_id", "participant_id"}))
 public class Registration {
 
+    public static final String UNIQUE_EVENT_PARTICIPANT = "uk_registration_event_participant";
+
+    public static final String FK_EVENT = "fk_registration_event";
+
     @Id
     @Column(name = "registration_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // ids reservados em blocos pela sequence (PooledSequenceGenerator), o que permite inserir em lote
+    @GeneratedValue(generator = "registration_sequence")
+    @GenericGenerator(name = "registration_sequence",
+            strategy = "com.womakerscode.microservicemeetups.model.support.PooledSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "registration_sequence"))
     private Long id;
 
     // badge / name tag
     @Column(name = "name_tag")
     private String nameTag;
 
+    // nome do cracha em minusculas e seus trigramas, mantidos pelo RegistrationServiceImpl para a busca
+    @Column(name = "name_tag_normalized")
+    private String nameTagNormalized;
+
+    @ElementCollection
+    @CollectionTable(name = "registration_name_tag_trigram", joinColumns = @JoinColumn(name = "registration_id"),
+            indexes = @Index(name = "idx_registration_name_tag_trigram", columnList = "trigram, registration_id"))
+    @Column(name = "trigram", length = 3, nullable = false)
+    private Set<String> nameTagTrigrams;
+
     @Column(name = "date_of_registration")
     private LocalDateTime dateOfRegistration;
 
-    @ManyToOne
-    @JoinColumn(name = "event_id", nullable = false)
+    // quase sempre so o id e lido, e o proxy o devolve sem carregar o evento; fora do equals/hashCode/toString,
+    // que inicializariam o proxy (ou falhariam fora da sessao)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false, foreignKey = @ForeignKey(name = Registration.FK_EVENT))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Event event;
 
     // participant user
     @Column(name = "participant_id")
     private Long participantId;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Builder.Default
+    private RegistrationStatusEnum status = RegistrationStatusEnum.CONFIRMED;
+
+    @Version
+    private long version;
+
 }
@@ -0,0 +1,11 @@
+package com.womakerscode.microservicemeetups.model.enumeration;
+
+public enum RegistrationStatusEnum {
+
+    // ocupa uma vaga do evento
+    CONFIRMED,
+
+    // aguarda uma vaga; confirmada por ordem de inscricao quando uma inscricao confirmada e removida
+    WAITLISTED
+
+}
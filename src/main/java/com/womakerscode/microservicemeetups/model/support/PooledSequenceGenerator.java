@@ -0,0 +1,31 @@
+package com.womakerscode.microservicemeetups.model.support;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence com pooled optimizer cujo allocation size vem da configuracao ({@value #ALLOCATION_SIZE}, em
+ * spring.jpa.properties) em vez de uma constante no mapeamento. O incremento da sequence no banco precisa ser
+ * o mesmo: o Hibernate confere na subida e falha quando diferem.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE = "meetups.id.allocation_size";
+
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Object allocationSize = serviceRegistry.getService(ConfigurationService.class).getSettings()
+                .get(ALLOCATION_SIZE);
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize != null
+                ? allocationSize : DEFAULT_ALLOCATION_SIZE));
+        super.configure(type, params, serviceRegistry);
+    }
+
+}
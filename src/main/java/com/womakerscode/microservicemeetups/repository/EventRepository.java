@@ -1,14 +1,28 @@
 package com.womakerscode.microservicemeetups.repository;
 
 import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.projection.EventVersion;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>,
+        EventRepositoryCustom {
+
+    String SELECT_REGISTRATION_SUMMARY = " select new com.womakerscode.microservicemeetups.repository.projection." +
+            "RegistrationSummary(r.id, r.nameTag, r.dateOfRegistration, r.event.id, r.participantId, r.status) " +
+            "from Registration as r ";
 
     @Query(value = " select e from Event as e where e.title = :title and e.startDate = :startDate " +
             "and e.endDate = :endDate and e.organizerId = :organizerId ")
@@ -17,4 +31,44 @@ public interface EventRepository extends JpaRepository<Event, Long> {
                                     @Param("endDate") LocalDateTime endDate,
                                     @Param("organizerId") Long organizerId);
 
-}
\ No newline at end of file
+    @Query(" select e.version as version, e.registrationsVersion as registrationsVersion, " +
+            "e.registrationCount as registrationCount from Event as e where e.id = :id ")
+    Optional<EventVersion> findVersion(@Param("id") Long id);
+
+    @Query(" select r from Registration as r where r.event.id = :eventId order by r.id ")
+    List<Registration> findRegistrations(@Param("eventId") Long eventId);
+
+    // inscricoes de uma pagina de eventos em um unico select, sem materializar Registration nem Event
+    @Query(SELECT_REGISTRATION_SUMMARY + "where r.event.id in :eventIds order by r.id ")
+    List<RegistrationSummary> findRegistrationSummaries(@Param("eventIds") Collection<Long> eventIds);
+
+    // paginacao por cursor das inscricoes do evento, pelo indice (event_id, registration_id)
+    @Query(SELECT_REGISTRATION_SUMMARY + "where r.event.id = :eventId and r.id > :after order by r.id ")
+    Slice<RegistrationSummary> findRegistrationSummariesAfter(@Param("eventId") Long eventId,
+                                                              @Param("after") long after, Pageable pageable);
+
+    /**
+     * Ids das {@code limit} primeiras inscricoes (por id) de cada evento. O row_number nao existe no JPQL: a
+     * consulta nativa devolve apenas os ids, e as colunas vem do {@link #findRegistrationSummariesById}.
+     */
+    @Query(value = "select registration_id from (select registration_id, row_number() over (partition by event_id " +
+            "order by registration_id) as position from registration where event_id in :eventIds) as ranked " +
+            "where position <= :limit", nativeQuery = true)
+    List<Long> findFirstRegistrationIds(@Param("eventIds") Collection<Long> eventIds, @Param("limit") int limit);
+
+    @Query(SELECT_REGISTRATION_SUMMARY + "where r.id in :ids order by r.id ")
+    List<RegistrationSummary> findRegistrationSummariesById(@Param("ids") Collection<Long> ids);
+
+    @Query(" select count(r) > 0 from Registration as r where r.event.id = :eventId ")
+    boolean hasRegistrations(@Param("eventId") Long eventId);
+
+    // trava a linha do evento ate o fim da transacao, como as gravacoes de inscricoes (que a atualizam antes
+    // do insert)
+    @Modifying
+    @Query(RegistrationRepository.INCREMENT_REGISTRATIONS_VERSION)
+    int lockForRegistrations(@Param("eventId") Long eventId);
+
+    @Query(value = "select count(*) from event_title_trigram where trigram = :trigram", nativeQuery = true)
+    long countTitleTrigram(@Param("trigram") String trigram);
+
+}
@@ -0,0 +1,16 @@
+package com.womakerscode.microservicemeetups.repository;
+
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.repository.projection.EventSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * Pagina das listagens apenas com as colunas do {@link EventSummary}, sem as inscricoes.
+     */
+    Slice<EventSummary> findSummaries(Specification<Event> specification, Pageable pageable);
+
+}
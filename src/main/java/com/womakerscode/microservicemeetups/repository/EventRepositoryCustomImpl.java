@@ -0,0 +1,21 @@
+package com.womakerscode.microservicemeetups.repository;
+
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.repository.projection.EventSummary;
+import com.womakerscode.microservicemeetups.repository.support.SliceQuerySupport;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public class EventRepositoryCustomImpl extends SliceQuerySupport<Event> implements EventRepositoryCustom {
+
+    public EventRepositoryCustomImpl() {
+        super(Event.class);
+    }
+
+    @Override
+    public Slice<EventSummary> findSummaries(Specification<Event> specification, Pageable pageable) {
+        return findSlice(specification, pageable, EventSummary.class, EventSummary.ATTRIBUTES);
+    }
+
+}
@@ -1,17 +1,98 @@
 package com.womakerscode.microservicemeetups.repository;
 
 import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface RegistrationRepository extends JpaRepository<Registration, Long>,
+        JpaSpecificationExecutor<Registration>, RegistrationRepositoryCustom {
+
+    String ADD_REGISTRATIONS = " update Event as e set e.registrationCount = e.registrationCount + :count, " +
+            "e.registrationsVersion = e.registrationsVersion + 1 " +
+            "where e.id = :eventId and (e.capacity is null or e.registrationCount + :count <= e.capacity) ";
 
-public interface RegistrationRepository extends JpaRepository<Registration, Long> {
+    String INCREMENT_REGISTRATIONS_VERSION = " update Event as e " +
+            "set e.registrationsVersion = e.registrationsVersion + 1 where e.id = :eventId ";
 
-    @Query(value = " select r from Registration as r join r.event as e " +
-            "where e.id = :eventId and r.participantId = :participantId ")
+    String EXPORT_FETCH_SIZE = "1000";
+
+    @Query(value = " select r from Registration as r " +
+            "where r.event.id = :eventId and r.participantId = :participantId ")
     Optional<Registration> findExistingRegistrationEvent(@Param("eventId") Long eventId,
                                                          @Param("participantId") Long participantId);
 
+    @Query(value = "select count(*) from registration_name_tag_trigram where trigram = :trigram",
+            nativeQuery = true)
+    long countNameTagTrigram(@Param("trigram") String trigram);
+
+    @Query(value = " select r.participantId from Registration as r " +
+            "where r.event.id = :eventId and r.participantId in :participantIds ")
+    List<Long> findRegisteredParticipants(@Param("eventId") Long eventId,
+                                          @Param("participantIds") Collection<Long> participantIds);
+
+    // a inscricao mais antiga na lista de espera do evento
+    @Query(" select r.id from Registration as r where r.event.id = :eventId and r.status = :status " +
+            "order by r.dateOfRegistration, r.id ")
+    List<Long> findByStatus(@Param("eventId") Long eventId, @Param("status") RegistrationStatusEnum status,
+                            Pageable pageable);
+
+    // condicional no status: duas remocoes simultaneas nunca confirmam a mesma inscricao
+    @Transactional
+    @Modifying
+    @Query(" update Registration as r set r.status = :status, r.version = r.version + 1 " +
+            "where r.id = :id and r.status <> :status ")
+    int updateStatus(@Param("id") Long id, @Param("status") RegistrationStatusEnum status);
+
+    /**
+     * Todas as inscricoes do evento em uma unica leitura, consumida sob demanda: o driver traz
+     * {@link #EXPORT_FETCH_SIZE} linhas por vez e as projecoes nao ficam no contexto de persistencia. O stream
+     * exige uma transacao aberta ate ser fechado.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(EventRepository.SELECT_REGISTRATION_SUMMARY + "where r.event.id = :eventId order by r.id ")
+    Stream<RegistrationSummary> streamSummariesByEvent(@Param("eventId") Long eventId);
+
+    // relida na remocao com a linha travada ate o fim da transacao
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(" select r from Registration as r where r.id = :id ")
+    Optional<Registration> findByIdForUpdate(@Param("id") Long id);
+
+    @Query(" select r.version from Registration as r where r.id = :id ")
+    Optional<Long> findVersion(@Param("id") Long id);
+
+    // update direto na linha do evento: nao carrega o Event nem altera a sua @Version
+    @Transactional
+    @Modifying
+    @Query(INCREMENT_REGISTRATIONS_VERSION)
+    int incrementRegistrationsVersion(@Param("eventId") Long eventId);
+
+    /**
+     * Soma {@code count} inscricoes (negativo na remocao) ao contador do evento, conferindo a capacidade no
+     * proprio update: nenhuma linha e alterada, e o retorno e 0, quando nao ha vagas. A linha do evento fica
+     * travada apenas ate o fim da transacao que grava as inscricoes.
+     */
+    @Transactional
+    @Modifying
+    @Query(ADD_REGISTRATIONS)
+    int addRegistrations(@Param("eventId") Long eventId, @Param("count") int count);
+
 }
@@ -0,0 +1,26 @@
+package com.womakerscode.microservicemeetups.repository;
+
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface RegistrationRepositoryCustom {
+
+    /**
+     * Pagina das listagens apenas com as colunas do {@link RegistrationSummary}, sem carregar o evento.
+     */
+    Slice<RegistrationSummary> findSummaries(Specification<Registration> specification, Pageable pageable);
+
+    /**
+     * Insere as inscricoes em lotes do JDBC e as desanexa do contexto de persistencia, para que uma
+     * importacao grande nao acumule entidades na sessao. Na mesma transacao, soma as inscricoes confirmadas ao
+     * contador dos eventos envolvidos: sem vagas para todas, as primeiras ficam com as que restam e as demais
+     * sao gravadas na lista de espera, como no cadastro individual.
+     */
+    List<Registration> insertAll(List<Registration> registrations);
+
+}
@@ -0,0 +1,79 @@
+package com.womakerscode.microservicemeetups.repository;
+
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
+import com.womakerscode.microservicemeetups.repository.support.SliceQuerySupport;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class RegistrationRepositoryCustomImpl extends SliceQuerySupport<Registration>
+        implements RegistrationRepositoryCustom {
+
+    private static final String FREE_SEATS = " select e.capacity - e.registrationCount from Event as e " +
+            "where e.id = :eventId ";
+
+    public RegistrationRepositoryCustomImpl() {
+        super(Registration.class);
+    }
+
+    @Override
+    public Slice<RegistrationSummary> findSummaries(Specification<Registration> specification, Pageable pageable) {
+        return findSlice(specification, pageable, RegistrationSummary.class, RegistrationSummary.ATTRIBUTES);
+    }
+
+    @Override
+    @Transactional
+    public List<Registration> insertAll(List<Registration> registrations) {
+        EntityManager entityManager = getEntityManager();
+        // as vagas sao reservadas antes dos inserts, de uma vez para as inscricoes de cada evento
+        registrations.stream()
+                .collect(Collectors.groupingBy(registration -> registration.getEvent().getId()))
+                .forEach((eventId, eventRegistrations) -> {
+                    int seats = claimSeats(entityManager, eventId, eventRegistrations.size());
+                    for (int i = 0; i < eventRegistrations.size(); i++) {
+                        eventRegistrations.get(i).setStatus(i < seats
+                                ? RegistrationStatusEnum.CONFIRMED : RegistrationStatusEnum.WAITLISTED);
+                    }
+                });
+        registrations.forEach(entityManager::persist);
+        entityManager.flush();
+        registrations.forEach(entityManager::detach);
+        return registrations;
+    }
+
+    // vagas reservadas, ate count; sem vagas para todas, trava a linha do evento e reserva as que restam
+    private static int claimSeats(EntityManager entityManager, Long eventId, int count) {
+        if (addRegistrations(entityManager, eventId, count) == 1) {
+            return count;
+        }
+        // o update que nao alterou nada nao travou a linha: trava antes de ler as vagas livres, como no save
+        entityManager.createQuery(RegistrationRepository.INCREMENT_REGISTRATIONS_VERSION)
+                .setParameter("eventId", eventId)
+                .executeUpdate();
+        Integer free = entityManager.createQuery(FREE_SEATS, Integer.class)
+                .setParameter("eventId", eventId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+        if (free == null || free <= 0) {
+            return 0;
+        }
+        int seats = Math.min(free, count);
+        return addRegistrations(entityManager, eventId, seats) == 1 ? seats : 0;
+    }
+
+    private static int addRegistrations(EntityManager entityManager, Long eventId, int count) {
+        return entityManager.createQuery(RegistrationRepository.ADD_REGISTRATIONS)
+                .setParameter("eventId", eventId)
+                .setParameter("count", count)
+                .executeUpdate();
+    }
+
+}
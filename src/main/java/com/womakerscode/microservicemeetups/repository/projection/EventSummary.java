@@ -0,0 +1,59 @@
+package com.womakerscode.microservicemeetups.repository.projection;
+
+import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Colunas do evento usadas nas listagens, lidas sem materializar a entidade (sem trigramas, versoes nem a
+ * colecao de inscricoes). As inscricoes da pagina sao lidas a parte, em uma unica consulta, pelo EventServiceImpl.
+ */
+@Getter
+public class EventSummary {
+
+    // atributos selecionados, na ordem do construtor
+    public static final List<String> ATTRIBUTES = List.of("id", "title", "description", "creationDate",
+            "startDate", "endDate", "eventTypeEnum", "organizerId", "capacity", "registrationCount");
+
+    private final Long id;
+
+    private final String title;
+
+    private final String description;
+
+    private final LocalDateTime creationDate;
+
+    private final LocalDateTime startDate;
+
+    private final LocalDateTime endDate;
+
+    private final EventTypeEnum eventTypeEnum;
+
+    private final Long organizerId;
+
+    private final Integer capacity;
+
+    private final int registrationCount;
+
+    @Setter
+    private List<RegistrationSummary> registrations;
+
+    public EventSummary(Long id, String title, String description, LocalDateTime creationDate,
+                        LocalDateTime startDate, LocalDateTime endDate, EventTypeEnum eventTypeEnum,
+                        Long organizerId, Integer capacity, int registrationCount) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.creationDate = creationDate;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.eventTypeEnum = eventTypeEnum;
+        this.organizerId = organizerId;
+        this.capacity = capacity;
+        this.registrationCount = registrationCount;
+    }
+
+}
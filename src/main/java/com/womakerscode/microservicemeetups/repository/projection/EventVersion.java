@@ -0,0 +1,15 @@
+package com.womakerscode.microservicemeetups.repository.projection;
+
+/**
+ * Versoes de um evento, lidas sem carregar a entidade: a do proprio evento e a das suas inscricoes, com o
+ * total de inscricoes confirmadas que muda junto com esta.
+ */
+public interface EventVersion {
+
+    long getVersion();
+
+    long getRegistrationsVersion();
+
+    int getRegistrationCount();
+
+}
@@ -0,0 +1,36 @@
+package com.womakerscode.microservicemeetups.repository.projection;
+
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Colunas da inscricao usadas nas listagens, lidas sem materializar a entidade nem o seu evento: o id do evento
+ * vem da propria chave estrangeira.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class RegistrationSummary {
+
+    // atributos selecionados, na ordem do construtor
+    public static final List<String> ATTRIBUTES = List.of("id", "nameTag", "dateOfRegistration", "event.id",
+            "participantId", "status");
+
+    Long id;
+
+    String nameTag;
+
+    LocalDateTime dateOfRegistration;
+
+    Long eventId;
+
+    Long participantId;
+
+    RegistrationStatusEnum status;
+
+}
@@ -0,0 +1,53 @@
+package com.womakerscode.microservicemeetups.repository.reactive;
+
+import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Linha da tabela event lida pelo R2DBC, apenas para consulta: as gravacoes continuam na entidade JPA
+ * {@link com.womakerscode.microservicemeetups.model.entity.Event}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("event")
+public class EventRow {
+
+    @Id
+    @Column("event_id")
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private LocalDateTime creationDate;
+
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate;
+
+    private EventTypeEnum eventTypeEnum;
+
+    private Long organizerId;
+
+    private Integer capacity;
+
+    private int registrationCount;
+
+    // preenchidas pelo ReactiveEventServiceImpl
+    @Transient
+    private List<RegistrationRow> registrations;
+
+}
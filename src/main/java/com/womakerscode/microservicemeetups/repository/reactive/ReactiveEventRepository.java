@@ -0,0 +1,36 @@
+package com.womakerscode.microservicemeetups.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+/**
+ * Consultas de eventos pelo R2DBC, sem bloquear a thread durante o acesso ao banco. Os resultados sao
+ * entregues conforme a demanda do assinante; a escrita continua no
+ * {@link com.womakerscode.microservicemeetups.repository.EventRepository}.
+ */
+public interface ReactiveEventRepository extends R2dbcRepository<EventRow, Long> {
+
+    String SELECT_EVENT = " select event_id, title, description, creation_date, start_date, end_date, " +
+            "event_type_enum, organizer_id, capacity, registration_count from event ";
+
+    // paginacao por cursor (id)
+    @Query(SELECT_EVENT + "where event_id > :after order by event_id limit :size ")
+    Flux<EventRow> findAfter(@Param("after") long after, @Param("size") int size);
+
+    /**
+     * Titulo contendo o texto, pela coluna normalizada: sem o indice de trigramas da busca do JPA.
+     */
+    @Query(SELECT_EVENT + "where event_id > :after and title_normalized like :pattern escape '\\' " +
+            "order by event_id limit :size ")
+    Flux<EventRow> findByTitleAfter(@Param("pattern") String pattern, @Param("after") long after,
+                                    @Param("size") int size);
+
+    @Query(" select registration_id, name_tag, date_of_registration, event_id, participant_id, status " +
+            "from registration where event_id in (:eventIds) order by registration_id ")
+    Flux<RegistrationRow> findRegistrations(@Param("eventIds") Collection<Long> eventIds);
+
+}
@@ -0,0 +1,38 @@
+package com.womakerscode.microservicemeetups.repository.reactive;
+
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da tabela registration lida pelo R2DBC, apenas para consulta.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("registration")
+public class RegistrationRow {
+
+    @Id
+    @Column("registration_id")
+    private Long id;
+
+    private String nameTag;
+
+    private LocalDateTime dateOfRegistration;
+
+    private Long eventId;
+
+    private Long participantId;
+
+    private RegistrationStatusEnum status;
+
+}
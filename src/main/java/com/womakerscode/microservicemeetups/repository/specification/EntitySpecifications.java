@@ -0,0 +1,57 @@
+package com.womakerscode.microservicemeetups.repository.specification;
+
+import com.womakerscode.microservicemeetups.util.SearchUtil;
+import org.springframework.data.domain.Example;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import java.util.Comparator;
+import java.util.function.ToLongFunction;
+
+public final class EntitySpecifications {
+
+    private EntitySpecifications() {
+    }
+
+    /**
+     * Mesmos predicados que o {@code findAll(Example, Pageable)}, para combinar com outras specifications.
+     */
+    public static <T> Specification<T> byExample(Example<T> example) {
+        return (root, query, builder) -> QueryByExamplePredicateBuilder.getPredicate(root, builder, example);
+    }
+
+    /**
+     * Condicao da paginacao por cursor (keyset): registros com id maior que o ultimo id lido.
+     */
+    public static <T> Specification<T> idGreaterThan(Long id) {
+        return (root, query, builder) -> id == null ? null : builder.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * Busca "contem" sem diferenciar maiusculas sobre a coluna normalizada. Com tres ou mais caracteres o
+     * select parte do indice de trigramas pelo trigrama menos frequente do termo (todo resultado precisa
+     * conte-lo) e o LIKE confirma o texto apenas nesses candidatos; termos menores comparam so a coluna.
+     */
+    public static <T> Specification<T> containsText(String normalizedAttribute, String trigramsAttribute,
+                                                    String text, ToLongFunction<String> trigramFrequency) {
+        String term = SearchUtil.normalize(text);
+        if (term == null || term.isEmpty()) {
+            return null;
+        }
+        String rarestTrigram = SearchUtil.trigrams(term).stream()
+                .min(Comparator.comparingLong(trigramFrequency))
+                .orElse(null);
+        String pattern = "%" + SearchUtil.escapeLike(term) + "%";
+        return (root, query, builder) -> {
+            Predicate like = builder.like(root.get(normalizedAttribute), pattern, '\\');
+            if (rarestTrigram == null) {
+                return like;
+            }
+            Join<T, String> trigram = root.join(trigramsAttribute);
+            return builder.and(builder.equal(trigram, rarestTrigram), like);
+        };
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.womakerscode.microservicemeetups.repository.support;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.List;
+
+/**
+ * Base dos fragments customizados dos repositories. Consultas paginadas que devolvem {@link Slice}:
+ * busca uma linha a mais que o tamanho da pagina para saber se existe proxima, sem o select count.
+ */
+public abstract class SliceQuerySupport<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Class<T> domainClass;
+
+    protected SliceQuerySupport(Class<T> domainClass) {
+        this.domainClass = domainClass;
+    }
+
+    /**
+     * Seleciona apenas os atributos informados (caminhos como {@code event.id} usam a chave estrangeira, sem
+     * join) e monta cada linha pelo construtor de {@code projection} que recebe esses atributos na mesma ordem.
+     * Nada fica no contexto de persistencia.
+     */
+    protected <P> Slice<P> findSlice(Specification<T> specification, Pageable pageable, Class<P> projection,
+                                     List<String> attributes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = builder.createQuery(projection);
+        Root<T> root = query.from(domainClass);
+        query.select(builder.construct(projection, attributes.stream()
+                .map(attribute -> path(root, attribute))
+                .toArray(Selection[]::new)));
+        return findSlice(query, root, specification, pageable);
+    }
+
+    private <R> Slice<R> findSlice(CriteriaQuery<R> query, Root<T> root, Specification<T> specification,
+                                   Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        }
+
+        TypedQuery<R> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+
+        List<R> content = typedQuery.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private static Path<?> path(Root<?> root, String attribute) {
+        Path<?> path = root;
+        for (String name : attribute.split("\\.")) {
+            path = path.get(name);
+        }
+        return path;
+    }
+
+    protected EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+}
@@ -1,26 +1,54 @@
 package com.womakerscode.microservicemeetups.service;
 
 import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.projection.EventSummary;
+import com.womakerscode.microservicemeetups.repository.projection.EventVersion;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface EventService {
 
     Event save(Event event);
 
+    /**
+     * Evento sem as colecoes (inscricoes e trigramas), servido do cache. A instancia e compartilhada entre
+     * as requisicoes: para alterar, trabalhe sobre uma copia ({@code toBuilder}).
+     */
     Optional<Event> getById(Long id);
 
-    void delete(Event event);
+    List<Registration> getRegistrations(Long eventId);
+
+    /**
+     * Inscricoes do evento com id maior que {@code after}, em ordem de id (paginacao por cursor).
+     */
+    Slice<RegistrationSummary> getRegistrations(Long eventId, long after, int size);
 
-    void validateEventWithRegistrationsForDelete(Event event);
+    Optional<EventVersion> getVersion(Long id);
+
+    void delete(Event event);
 
     Event update(Event event);
 
     void validateTheEventPeriod(Event event);
 
-    Page<Event> find(Event filter, Pageable pageable);
+    /**
+     * Listagens: apenas as colunas exibidas, com as inscricoes de toda a pagina lidas em uma unica consulta.
+     * {@code registrations} limita as inscricoes de cada evento as primeiras, por id: {@code null} traz todas e
+     * 0 nenhuma (sem a consulta).
+     */
+    Page<EventSummary> find(Event filter, Pageable pageable, Integer registrations);
+
+    Slice<EventSummary> findSlice(Event filter, Pageable pageable, Integer registrations);
+
+    Page<EventSummary> findWithCachedCount(Event filter, Pageable pageable, Integer registrations);
+
+    Slice<EventSummary> findAfter(Event filter, Long after, int size, Integer registrations);
 
     Optional<Event> findByEventExistent(Event event);
 
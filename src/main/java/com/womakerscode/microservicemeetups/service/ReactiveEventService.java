@@ -0,0 +1,21 @@
+package com.womakerscode.microservicemeetups.service;
+
+import com.womakerscode.microservicemeetups.repository.reactive.EventRow;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leitura reativa dos eventos (R2DBC), com as inscricoes. Os cadastros e alteracoes continuam no
+ * {@link EventService}; aqui nao ha cache.
+ */
+public interface ReactiveEventService {
+
+    Mono<EventRow> getById(Long id);
+
+    /**
+     * Eventos com id maior que {@code after}, em ordem de id, filtrados pelo titulo quando informado. Sao
+     * emitidos conforme a demanda do assinante, com as inscricoes lidas a cada lote de eventos.
+     */
+    Flux<EventRow> find(String title, long after, int size);
+
+}
@@ -1,22 +1,50 @@
 package com.womakerscode.microservicemeetups.service;
 
 import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface RegistrationService {
 
     Registration save(Registration registration);
 
+    /**
+     * Salva em lote inscricoes de um mesmo evento. Participantes ja inscritos sao ignorados e suas
+     * inscricoes continuam sem id; alem da capacidade do evento, as demais vao para a lista de espera.
+     * Retorna as inscricoes criadas.
+     */
+    List<Registration> saveAll(Long eventId, List<Registration> registrations);
+
     Optional<Registration> getRegistrationById(Long id);
 
+    Optional<Long> getVersion(Long id);
+
     void delete(Registration registration);
 
     Registration update(Registration registration);
 
-    Page<Registration> find(Registration filter, Pageable pageable);
+    /**
+     * Listagens: apenas as colunas exibidas, sem carregar as entidades nem o evento de cada inscricao.
+     */
+    Page<RegistrationSummary> find(Registration filter, Pageable pageable);
+
+    Slice<RegistrationSummary> findSlice(Registration filter, Pageable pageable);
+
+    Page<RegistrationSummary> findWithCachedCount(Registration filter, Pageable pageable);
+
+    Slice<RegistrationSummary> findAfter(Registration filter, Long after, int size);
+
+    /**
+     * Entrega ao {@code action} cada inscricao do evento, em ordem de id, lidas de uma unica consulta em stream
+     * dentro da transacao do metodo.
+     */
+    void exportByEvent(Long eventId, Consumer<RegistrationSummary> action);
 
     Optional<Registration> findByExistingRegistrationForTheEvent(Registration registration);
 
@@ -1,63 +1,149 @@
 package com.womakerscode.microservicemeetups.service.impl;
 
+import com.womakerscode.microservicemeetups.config.CacheConfig;
+import com.womakerscode.microservicemeetups.config.MetricsConfig;
 import com.womakerscode.microservicemeetups.exception.BusinessException;
 import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
 import com.womakerscode.microservicemeetups.repository.EventRepository;
+import com.womakerscode.microservicemeetups.repository.projection.EventSummary;
+import com.womakerscode.microservicemeetups.repository.projection.EventVersion;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
+import com.womakerscode.microservicemeetups.repository.specification.EntitySpecifications;
 import com.womakerscode.microservicemeetups.service.EventService;
+import com.womakerscode.microservicemeetups.service.support.CountCache;
+import com.womakerscode.microservicemeetups.util.SearchUtil;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.womakerscode.microservicemeetups.service.support.ConstraintViolations.isConstraintViolation;
 
 @Service
 public class EventServiceImpl implements EventService {
 
+    private static final String EVENT_WITH_REGISTRATIONS =
+            "The event cannot be deleted as it has active registrations";
+
     private EventRepository eventRepository;
 
+    private final CountCache countCache = CountCache.forPageTotals();
+
+    private final CountCache trigramCountCache = CountCache.forTrigrams();
+
     public EventServiceImpl(EventRepository eventRepository) {
         this.eventRepository = eventRepository;
     }
 
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
     public Event save(Event event) {
-        // validar duplicidade no cadastro do evento
-        if (existsByEvent(event)) {
-            throw new BusinessException("Event already created");
+        indexTitle(event);
+        try {
+            // a unique (title, start_date, end_date, organizer_id) valida a duplicidade no proprio insert,
+            // sem a janela entre select e insert em que cadastros simultaneos passavam juntos
+            return eventRepository.saveAndFlush(event);
+        } catch (DataIntegrityViolationException e) {
+            if (isConstraintViolation(e, Event.UNIQUE_TITLE_PERIOD_ORGANIZER)) {
+                throw new BusinessException("Event already created");
+            }
+            throw e;
         }
-        return eventRepository.save(event);
     }
 
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EVENT_CACHE, unless = "#result == null")
     public Optional<Event> getById(Long id) {
-        return eventRepository.findById(id);
+        return eventRepository.findById(id).map(EventServiceImpl::detach);
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public List<Registration> getRegistrations(Long eventId) {
+        return eventRepository.findRegistrations(eventId);
     }
 
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Slice<RegistrationSummary> getRegistrations(Long eventId, long after, int size) {
+        return eventRepository.findRegistrationSummariesAfter(eventId, after, PageRequest.of(0, size));
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Optional<EventVersion> getVersion(Long id) {
+        return eventRepository.findVersion(id);
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.EVENT_CACHE, CacheConfig.EVENT_RESPONSE_CACHE}, key = "#event.id")
     public void delete(Event event) {
         if (event == null || event.getId() == null) {
             throw new IllegalArgumentException("Event id cannot be null");
         }
-        eventRepository.delete(event);
-    }
-
-    @Override
-    public void validateEventWithRegistrationsForDelete(Event event) {
-        boolean hasRegistrationOnEvent = event.getRegistrations() != null && !event.getRegistrations().isEmpty();
-        if (hasRegistrationOnEvent) {
-            throw new BusinessException("The event cannot be deleted as it has active registrations");
+        // a conferencia e o delete ficam na mesma transacao, com a linha do evento travada: uma inscricao
+        // concorrente espera o delete terminar ou ja foi gravada e aparece no hasRegistrations (o evento pode
+        // vir do cache, sem as inscricoes carregadas)
+        eventRepository.lockForRegistrations(event.getId());
+        if (eventRepository.hasRegistrations(event.getId())) {
+            throw new BusinessException(EVENT_WITH_REGISTRATIONS);
+        }
+        try {
+            eventRepository.delete(event);
+            eventRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isConstraintViolation(e, Registration.FK_EVENT)) {
+                throw new BusinessException(EVENT_WITH_REGISTRATIONS);
+            }
+            throw e;
         }
-
     }
 
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.EVENT_CACHE, CacheConfig.EVENT_RESPONSE_CACHE}, key = "#event.id")
     public Event update(Event event) {
         if (event == null || event.getId() == null) {
             throw new IllegalArgumentException("Event id cannot be null");
         }
-        return eventRepository.save(event);
+        indexTitle(event);
+        try {
+            return eventRepository.saveAndFlush(event);
+        } catch (DataIntegrityViolationException e) {
+            // capacidade menor que as inscricoes ja feitas, conferida pela constraint junto com o contador
+            if (isConstraintViolation(e, Event.CHECK_REGISTRATION_COUNT)) {
+                throw new BusinessException("The event capacity cannot be less than its registrations");
+            }
+            throw e;
+        }
     }
 
     @Override
@@ -68,24 +154,114 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    public Page<Event> find(Event filter, Pageable pageable) {
-        Example<Event> example = Example.of(filter,
-                ExampleMatcher
-                        .matching()
-                        .withIgnoreCase()
-                        .withIgnoreNullValues()
-                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-        return eventRepository.findAll(example, pageable);
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Page<EventSummary> find(Event filter, Pageable pageable, Integer registrations) {
+        Specification<Event> specification = toSpecification(filter);
+        Slice<EventSummary> slice = findSummaries(specification, pageable, registrations);
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable,
+                () -> eventRepository.count(specification));
     }
 
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Slice<EventSummary> findSlice(Event filter, Pageable pageable, Integer registrations) {
+        return findSummaries(toSpecification(filter), pageable, registrations);
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Page<EventSummary> findWithCachedCount(Event filter, Pageable pageable, Integer registrations) {
+        Specification<Event> specification = toSpecification(filter);
+        return countCache.toPage(findSummaries(specification, pageable, registrations), countKey(filter),
+                () -> eventRepository.count(specification));
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Slice<EventSummary> findAfter(Event filter, Long after, int size, Integer registrations) {
+        // paginacao por cursor: ordena pelo id e filtra pelo ultimo id lido, sem offset e sem count
+        return findSummaries(
+                toSpecification(filter).and(EntitySpecifications.idGreaterThan(after)),
+                PageRequest.of(0, size, Sort.by("id")), registrations);
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public Optional<Event> findByEventExistent (Event event) {
         return eventRepository.findByEventExistent(event.getTitle(), event.getStartDate(), event.getEndDate(),
                 event.getOrganizerId());
     }
 
-    private boolean existsByEvent (Event event) {
-        return findByEventExistent(event).isPresent();
+    private Slice<EventSummary> findSummaries(Specification<Event> specification, Pageable pageable,
+                                              Integer registrations) {
+        Slice<EventSummary> slice = eventRepository.findSummaries(specification, pageable);
+        if (slice.hasContent() && (registrations == null || registrations > 0)) {
+            // inscricoes de todos os eventos da pagina em um unico select
+            List<Long> eventIds = slice.map(EventSummary::getId).getContent();
+            Map<Long, List<RegistrationSummary>> byEvent = findRegistrationSummaries(eventIds, registrations)
+                    .stream()
+                    .collect(Collectors.groupingBy(RegistrationSummary::getEventId));
+            slice.forEach(event -> event.setRegistrations(byEvent.getOrDefault(event.getId(), List.of())));
+        }
+        return slice;
+    }
+
+    private List<RegistrationSummary> findRegistrationSummaries(List<Long> eventIds, Integer limit) {
+        if (limit == null) {
+            return eventRepository.findRegistrationSummaries(eventIds);
+        }
+        List<Long> ids = eventRepository.findFirstRegistrationIds(eventIds, limit);
+        return ids.isEmpty() ? List.of() : eventRepository.findRegistrationSummariesById(ids);
+    }
+
+    private Object countKey(Event filter) {
+        return Arrays.asList(filter.getId(), SearchUtil.normalize(filter.getTitle()),
+                SearchUtil.normalize(filter.getDescription()), filter.getCreationDate(), filter.getStartDate(),
+                filter.getEndDate(), filter.getEventTypeEnum(), filter.getOrganizerId());
+    }
+
+    // o title sai do Example (LIKE '%..%' com lower() nao usa indice) e vai para a busca por trigramas
+    private Specification<Event> toSpecification(Event filter) {
+        return EntitySpecifications.byExample(toExample(filter))
+                .and(EntitySpecifications.containsText("titleNormalized", "titleTrigrams", filter.getTitle(),
+                        this::countTrigram));
+    }
+
+    private long countTrigram(String trigram) {
+        return trigramCountCache.count(trigram, () -> eventRepository.countTitleTrigram(trigram));
+    }
+
+    // recalcula a coluna normalizada e os trigramas apenas quando o title mudou
+    private void indexTitle(Event event) {
+        String normalized = SearchUtil.normalize(event.getTitle());
+        if (event.getTitleTrigrams() == null || !Objects.equals(normalized, event.getTitleNormalized())) {
+            event.setTitleNormalized(normalized);
+            event.setTitleTrigrams(SearchUtil.trigrams(normalized));
+        }
+    }
+
+    private Example<Event> toExample(Event filter) {
+        return Example.of(filter,
+                ExampleMatcher
+                        .matching()
+                        .withIgnoreCase()
+                        .withIgnoreNullValues()
+                        // versoes e contador sao primitivos: no Example sempre entrariam no filtro, como 0
+                        .withIgnorePaths("title", "version", "registrationsVersion", "registrationCount")
+                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+    }
+
+    // copia sem as colecoes lazy: a instancia em cache sobrevive ao EntityManager que a carregou
+    private static Event detach(Event event) {
+        return event.toBuilder()
+                .registrations(null)
+                .titleTrigrams(null)
+                .build();
     }
 
 }
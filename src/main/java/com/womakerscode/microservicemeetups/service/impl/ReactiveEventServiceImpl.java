@@ -0,0 +1,69 @@
+package com.womakerscode.microservicemeetups.service.impl;
+
+import com.womakerscode.microservicemeetups.repository.reactive.EventRow;
+import com.womakerscode.microservicemeetups.repository.reactive.ReactiveEventRepository;
+import com.womakerscode.microservicemeetups.repository.reactive.RegistrationRow;
+import com.womakerscode.microservicemeetups.service.ReactiveEventService;
+import com.womakerscode.microservicemeetups.util.SearchUtil;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@ConditionalOnProperty(name = "meetups.r2dbc.enabled", havingValue = "true")
+@Service
+public class ReactiveEventServiceImpl implements ReactiveEventService {
+
+    // eventos cujas inscricoes sao lidas em uma unica consulta
+    static final int REGISTRATIONS_BATCH_SIZE = 50;
+
+    private final ReactiveEventRepository reactiveEventRepository;
+
+    public ReactiveEventServiceImpl(ReactiveEventRepository reactiveEventRepository) {
+        this.reactiveEventRepository = reactiveEventRepository;
+    }
+
+    @Override
+    public Mono<EventRow> getById(Long id) {
+        return reactiveEventRepository.findById(id)
+                .flatMap(event -> reactiveEventRepository.findRegistrations(List.of(id))
+                        .collectList()
+                        .map(registrations -> {
+                            event.setRegistrations(registrations);
+                            return event;
+                        }));
+    }
+
+    @Override
+    public Flux<EventRow> find(String title, long after, int size) {
+        Flux<EventRow> events = title == null || title.isBlank()
+                ? reactiveEventRepository.findAfter(after, size)
+                : reactiveEventRepository.findByTitleAfter(
+                        "%" + SearchUtil.escapeLike(SearchUtil.normalize(title)) + "%", after, size);
+        // concatMap mantem a ordem dos lotes e so le o proximo quando o anterior foi consumido
+        return events.buffer(REGISTRATIONS_BATCH_SIZE).concatMap(this::withRegistrations);
+    }
+
+    private Flux<EventRow> withRegistrations(List<EventRow> events) {
+        List<Long> eventIds = events.stream().map(EventRow::getId).collect(Collectors.toList());
+        return reactiveEventRepository.findRegistrations(eventIds)
+                .collectMultimap(RegistrationRow::getEventId)
+                .flatMapIterable(registrationsByEvent -> {
+                    for (EventRow event : events) {
+                        event.setRegistrations(toList(registrationsByEvent.get(event.getId())));
+                    }
+                    return events;
+                });
+    }
+
+    private static List<RegistrationRow> toList(Collection<RegistrationRow> registrations) {
+        return registrations == null ? Collections.emptyList() : new ArrayList<>(registrations);
+    }
+
+}
@@ -1,70 +1,287 @@
 package com.womakerscode.microservicemeetups.service.impl;
 
+import com.womakerscode.microservicemeetups.config.CacheConfig;
+import com.womakerscode.microservicemeetups.config.MetricsConfig;
 import com.womakerscode.microservicemeetups.exception.BusinessException;
 import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
 import com.womakerscode.microservicemeetups.repository.RegistrationRepository;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
+import com.womakerscode.microservicemeetups.repository.specification.EntitySpecifications;
 import com.womakerscode.microservicemeetups.service.RegistrationService;
+import com.womakerscode.microservicemeetups.service.support.CountCache;
+import com.womakerscode.microservicemeetups.util.SearchUtil;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.womakerscode.microservicemeetups.service.support.ConstraintViolations.isConstraintViolation;
 
 @Service
 public class RegistrationServiceImpl implements RegistrationService {
 
     RegistrationRepository registrationRepository;
 
+    private final CountCache countCache = CountCache.forPageTotals();
+
+    private final CountCache trigramCountCache = CountCache.forTrigrams();
+
     public RegistrationServiceImpl(RegistrationRepository registrationRepository) {
         this.registrationRepository = registrationRepository;
     }
 
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EVENT_RESPONSE_CACHE, key = "#registration.event.id")
     public Registration save(Registration registration) {
-        // validar se participante ja esta inscrito no mesmo evento
-        if (findByExistingRegistrationForTheEvent(registration).isPresent()) {
-            throw new BusinessException("Registration already created");
+        Long eventId = registration.getEvent().getId();
+        indexNameTag(registration);
+        // a vaga e reservada antes do insert: com o evento lotado o update condicional nao altera nenhuma linha,
+        // entao a disputa pelas ultimas vagas nao grava nem trava nada para quem fica de fora
+        boolean confirmed = registrationRepository.addRegistrations(eventId, 1) == 1;
+        if (!confirmed) {
+            // trava a linha do evento e confere de novo: uma remocao concorrente ja liberou a vaga ou, na fila
+            // atras desta transacao, vai encontrar esta inscricao na lista de espera
+            registrationRepository.incrementRegistrationsVersion(eventId);
+            confirmed = registrationRepository.addRegistrations(eventId, 1) == 1;
+        }
+        registration.setStatus(confirmed ? RegistrationStatusEnum.CONFIRMED : RegistrationStatusEnum.WAITLISTED);
+        try {
+            // a unique (event_id, participant_id) valida a duplicidade no proprio insert, sem select antes
+            // e sem a janela entre os dois em que requisicoes simultaneas passavam juntas
+            return registrationRepository.saveAndFlush(registration);
+        } catch (DataIntegrityViolationException e) {
+            if (isConstraintViolation(e, Registration.UNIQUE_EVENT_PARTICIPANT)) {
+                throw new BusinessException("Registration already created");
+            }
+            // o evento (lido do cache) foi removido por outra requisicao depois da busca no controller
+            if (isConstraintViolation(e, Registration.FK_EVENT)) {
+                throw new BusinessException("The event no longer exists");
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    // sem transacao propria: cada insertAll e uma transacao, para que um lote desfeito nao desfaca os anteriores
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @CacheEvict(cacheNames = CacheConfig.EVENT_RESPONSE_CACHE, key = "#eventId")
+    public List<Registration> saveAll(Long eventId, List<Registration> registrations) {
+        if (registrations.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> registered = new HashSet<>(registrationRepository.findRegisteredParticipants(eventId,
+                registrations.stream().map(Registration::getParticipantId).collect(Collectors.toList())));
+        List<Registration> newRegistrations = registrations.stream()
+                .filter(registration -> !registered.contains(registration.getParticipantId()))
+                .collect(Collectors.toList());
+        newRegistrations.forEach(this::indexNameTag);
+        try {
+            return registrationRepository.insertAll(newRegistrations);
+        } catch (DataIntegrityViolationException e) {
+            if (!isConstraintViolation(e, Registration.UNIQUE_EVENT_PARTICIPANT)) {
+                throw e;
+            }
+            // outra requisicao inscreveu algum participante do lote entre o select e o insert: o lote foi
+            // desfeito, entao refaz uma a uma para criar as demais
+            return saveOneByOne(newRegistrations);
         }
-        return registrationRepository.save(registration);
     }
 
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public Optional<Registration> getRegistrationById(Long id) {
         return registrationRepository.findById(id);
     }
 
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(Long id) {
+        return registrationRepository.findVersion(id);
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EVENT_RESPONSE_CACHE, key = "#registration.event.id")
     public void delete(Registration registration) {
         if (registration == null || registration.getId() == null) {
             throw new IllegalArgumentException("Registration id cannot be null");
         }
-        registrationRepository.delete(registration);
+        Long eventId = registration.getEvent().getId();
+        // trava a linha do evento antes da inscricao, na mesma ordem do save e da promocao da lista de espera
+        registrationRepository.incrementRegistrationsVersion(eventId);
+        // decide pela linha atual, nao pela lida antes: uma remocao concorrente ja pode ter apagado a inscricao
+        // ou uma promocao ja pode te-la confirmado
+        Optional<Registration> current = registrationRepository.findByIdForUpdate(registration.getId());
+        if (current.isEmpty()) {
+            return;
+        }
+        registrationRepository.delete(current.get());
+        if (current.get().getStatus() == RegistrationStatusEnum.CONFIRMED) {
+            registrationRepository.addRegistrations(eventId, -1);
+            confirmNextWaitlisted(eventId);
+        }
     }
 
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EVENT_RESPONSE_CACHE, key = "#registration.event.id")
     public Registration update(Registration registration) {
         if (registration == null || registration.getId() == null) {
             throw new IllegalArgumentException("Registration id cannot be null");
         }
-        return registrationRepository.save(registration);
+        indexNameTag(registration);
+        Registration updatedRegistration = registrationRepository.save(registration);
+        registrationRepository.incrementRegistrationsVersion(updatedRegistration.getEvent().getId());
+        return updatedRegistration;
     }
 
     @Override
-    public Page<Registration> find(Registration filter, Pageable pageable) {
-        Example<Registration> example = Example.of(filter,
-                ExampleMatcher
-                        .matching()
-                        .withIgnoreCase()
-                        .withIgnoreNullValues()
-                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-        return registrationRepository.findAll(example, pageable);
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Page<RegistrationSummary> find(Registration filter, Pageable pageable) {
+        Specification<Registration> specification = toSpecification(filter);
+        Slice<RegistrationSummary> slice = registrationRepository.findSummaries(specification, pageable);
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable,
+                () -> registrationRepository.count(specification));
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Slice<RegistrationSummary> findSlice(Registration filter, Pageable pageable) {
+        return registrationRepository.findSummaries(toSpecification(filter), pageable);
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Page<RegistrationSummary> findWithCachedCount(Registration filter, Pageable pageable) {
+        Specification<Registration> specification = toSpecification(filter);
+        return countCache.toPage(findSlice(filter, pageable), countKey(filter),
+                () -> registrationRepository.count(specification));
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public Slice<RegistrationSummary> findAfter(Registration filter, Long after, int size) {
+        // paginacao por cursor: ordena pelo id e filtra pelo ultimo id lido, sem offset e sem count
+        return registrationRepository.findSummaries(
+                toSpecification(filter).and(EntitySpecifications.idGreaterThan(after)),
+                PageRequest.of(0, size, Sort.by("id")));
     }
 
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public void exportByEvent(Long eventId, Consumer<RegistrationSummary> action) {
+        try (Stream<RegistrationSummary> registrations = registrationRepository.streamSummariesByEvent(eventId)) {
+            registrations.forEach(action);
+        }
+    }
+
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
     public Optional<Registration> findByExistingRegistrationForTheEvent(Registration registration) {
         return registrationRepository.findExistingRegistrationEvent(registration.getEvent().getId(),
                 registration.getParticipantId());
     }
 
+    // cada insert na transacao do insertAll, junto com a reserva da vaga
+    private List<Registration> saveOneByOne(List<Registration> registrations) {
+        List<Registration> saved = new ArrayList<>();
+        registrations.forEach(registration -> registration.setId(null));
+        for (Registration registration : registrations) {
+            // descarta a colecao associada a tentativa em lote
+            registration.setNameTagTrigrams(null);
+            indexNameTag(registration);
+            try {
+                saved.addAll(registrationRepository.insertAll(List.of(registration)));
+            } catch (DataIntegrityViolationException e) {
+                if (!isConstraintViolation(e, Registration.UNIQUE_EVENT_PARTICIPANT)) {
+                    throw e;
+                }
+                registration.setId(null);
+            }
+        }
+        return saved;
+    }
+
+    // a vaga liberada passa para a inscricao mais antiga da lista de espera
+    private void confirmNextWaitlisted(Long eventId) {
+        PageRequest first = PageRequest.of(0, 1);
+        for (Long id : registrationRepository.findByStatus(eventId, RegistrationStatusEnum.WAITLISTED, first)) {
+            if (registrationRepository.updateStatus(id, RegistrationStatusEnum.CONFIRMED) == 1) {
+                registrationRepository.addRegistrations(eventId, 1);
+            }
+        }
+    }
+
+    private Object countKey(Registration filter) {
+        return Arrays.asList(filter.getId(), SearchUtil.normalize(filter.getNameTag()), filter.getDateOfRegistration(),
+                filter.getEvent() != null ? filter.getEvent().getId() : null, filter.getParticipantId());
+    }
+
+    // o nameTag sai do Example (LIKE '%..%' com lower() nao usa indice) e vai para a busca por trigramas
+    private Specification<Registration> toSpecification(Registration filter) {
+        return EntitySpecifications.byExample(toExample(filter))
+                .and(EntitySpecifications.containsText("nameTagNormalized", "nameTagTrigrams", filter.getNameTag(),
+                        this::countTrigram));
+    }
+
+    private long countTrigram(String trigram) {
+        return trigramCountCache.count(trigram, () -> registrationRepository.countNameTagTrigram(trigram));
+    }
+
+    // recalcula a coluna normalizada e os trigramas apenas quando o nameTag mudou
+    private void indexNameTag(Registration registration) {
+        String normalized = SearchUtil.normalize(registration.getNameTag());
+        if (registration.getNameTagTrigrams() == null
+                || !Objects.equals(normalized, registration.getNameTagNormalized())) {
+            registration.setNameTagNormalized(normalized);
+            registration.setNameTagTrigrams(SearchUtil.trigrams(normalized));
+        }
+    }
+
+    private Example<Registration> toExample(Registration filter) {
+        return Example.of(filter,
+                ExampleMatcher
+                        .matching()
+                        .withIgnoreCase()
+                        .withIgnoreNullValues()
+                        // status tem valor padrao no builder, versoes e contador sao primitivos: no Example sempre
+                        // entrariam no filtro, inclusive os do evento
+                        .withIgnorePaths("nameTag", "status", "version", "event.version",
+                                "event.registrationsVersion", "event.registrationCount")
+                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+    }
+
 }
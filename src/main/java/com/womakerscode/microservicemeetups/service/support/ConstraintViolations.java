@@ -0,0 +1,23 @@
+package com.womakerscode.microservicemeetups.service.support;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Identifica a constraint violada por um insert ou update, para os services traduzirem as violacoes
+ * esperadas em BusinessException.
+ */
+public class ConstraintViolations {
+
+    // o H2 informa o nome em maiusculas e com o indice junto, ex.: PUBLIC.UK_..._INDEX_3
+    public static boolean isConstraintViolation(DataIntegrityViolationException e, String constraint) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(constraint);
+    }
+
+}
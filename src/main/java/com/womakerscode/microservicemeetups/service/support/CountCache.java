@@ -0,0 +1,56 @@
+package com.womakerscode.microservicemeetups.service.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Total de registros por filtro guardado por um curto periodo, para as buscas que aceitam um total
+ * aproximado em troca de nao repetir o select count a cada pagina.
+ */
+public class CountCache {
+
+    private final Cache<Object, Long> cache;
+
+    public CountCache(long maximumSize, Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Total aproximado das buscas que optam por nao contar a cada pagina, por filtro.
+     */
+    public static CountCache forPageTotals() {
+        return new CountCache(1_000, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Quantas linhas cada trigrama possui no indice, para a busca textual partir do mais seletivo.
+     */
+    public static CountCache forTrigrams() {
+        return new CountCache(10_000, Duration.ofMinutes(5));
+    }
+
+    /**
+     * Monta a {@link Page} a partir do slice; o count so e executado (ou lido do cache) quando o total
+     * nao pode ser deduzido da propria pagina, como na ultima pagina.
+     */
+    public <T> Page<T> toPage(Slice<T> slice, Object key, LongSupplier counter) {
+        // o total em cache pode estar defasado; nunca menor que o que ja se sabe existir
+        long minimum = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        return PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(),
+                () -> Math.max(count(key, counter), minimum));
+    }
+
+    public long count(Object key, LongSupplier counter) {
+        return cache.get(key, k -> counter.getAsLong());
+    }
+
+}
@@ -1,29 +1,114 @@
 package com.womakerscode.microservicemeetups.util;
 
 import java.time.LocalDateTime;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
 
 public class DateUtil {
 
     public static final String DATE_TIME_PATTERN_DEFAULT = "dd/MM/yyyy HH:mm";
 
+    // DateTimeFormatter e imutavel e thread-safe, pode ser compartilhado
+    public static final DateTimeFormatter DATE_TIME_FORMATTER_DEFAULT =
+            DateTimeFormatter.ofPattern(DATE_TIME_PATTERN_DEFAULT);
+
+    // "dd/MM/yyyy HH:mm"
+    private static final int DATE_TIME_DEFAULT_LENGTH = 16;
+
     public static String formatLocalDateTimeToStringWithTime(LocalDateTime localDateTime) {
-        return formatPatternLocalDateTimeToString(localDateTime, DATE_TIME_PATTERN_DEFAULT);
+        if (localDateTime == null) {
+            throw new IllegalArgumentException("The date is invalid");
+        }
+        int year = localDateTime.getYear();
+        if (year < 1 || year > 9999) {
+            return formatPatternLocalDateTimeToString(localDateTime, DATE_TIME_FORMATTER_DEFAULT);
+        }
+        char[] chars = new char[DATE_TIME_DEFAULT_LENGTH];
+        writeTwoDigits(chars, 0, localDateTime.getDayOfMonth());
+        chars[2] = '/';
+        writeTwoDigits(chars, 3, localDateTime.getMonthValue());
+        chars[5] = '/';
+        writeTwoDigits(chars, 6, year / 100);
+        writeTwoDigits(chars, 8, year % 100);
+        chars[10] = ' ';
+        writeTwoDigits(chars, 11, localDateTime.getHour());
+        chars[13] = ':';
+        writeTwoDigits(chars, 14, localDateTime.getMinute());
+        return new String(chars);
     }
 
     public static LocalDateTime convertStringToLocalDateTimeWithTime(String date) {
-        return convertPatternStringToLocalDateTime(date.toString(), DATE_TIME_PATTERN_DEFAULT);
+        LocalDateTime localDateTime = parseDefaultPattern(date);
+        if (localDateTime != null) {
+            return localDateTime;
+        }
+        // formato fora do padrao ou valores que dependem do resolver (ex.: 31/02, 24:00): deixa o
+        // DateTimeFormatter decidir, mantendo o mesmo resultado ou a mesma DateTimeParseException
+        return convertPatternStringToLocalDateTime(date, DATE_TIME_FORMATTER_DEFAULT);
     }
 
-    private static String formatPatternLocalDateTimeToString(LocalDateTime localDateTime, String pattern) {
-        if (localDateTime == null) {
-            throw new IllegalArgumentException("The date is invalid");
+    private static String formatPatternLocalDateTimeToString(LocalDateTime localDateTime, DateTimeFormatter formatter) {
+        return formatter.format(localDateTime);
+    }
+
+    private static LocalDateTime convertPatternStringToLocalDateTime(String date, DateTimeFormatter formatter) {
+        return LocalDateTime.parse(date.toString(), formatter);
+    }
+
+    /**
+     * Leitura direta de "dd/MM/yyyy HH:mm". Retorna null quando o texto nao esta exatamente nesse formato
+     * ou quando algum campo esta fora do intervalo valido.
+     */
+    private static LocalDateTime parseDefaultPattern(String date) {
+        if (date.length() != DATE_TIME_DEFAULT_LENGTH
+                || date.charAt(2) != '/' || date.charAt(5) != '/'
+                || date.charAt(10) != ' ' || date.charAt(13) != ':') {
+            return null;
+        }
+        int day = readTwoDigits(date, 0);
+        int month = readTwoDigits(date, 3);
+        int century = readTwoDigits(date, 6);
+        int yearOfCentury = readTwoDigits(date, 8);
+        int hour = readTwoDigits(date, 11);
+        int minute = readTwoDigits(date, 14);
+        if (day < 0 || month < 0 || century < 0 || yearOfCentury < 0 || hour < 0 || minute < 0) {
+            return null;
+        }
+        int year = century * 100 + yearOfCentury;
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > monthLength(year, month)
+                || hour > 23 || minute > 59) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute);
+    }
+
+    private static int monthLength(int year, int month) {
+        switch (month) {
+            case 2:
+                return Year.isLeap(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // -1 quando algum dos caracteres nao e um digito ASCII
+    private static int readTwoDigits(String text, int index) {
+        int tens = text.charAt(index) - '0';
+        int units = text.charAt(index + 1) - '0';
+        if (tens < 0 || tens > 9 || units < 0 || units > 9) {
+            return -1;
         }
-        return DateTimeFormatter.ofPattern(pattern).format(localDateTime);
+        return tens * 10 + units;
     }
 
-    private static LocalDateTime convertPatternStringToLocalDateTime(String date, String pattern) {
-        return LocalDateTime.parse(date.toString(), DateTimeFormatter.ofPattern(pattern));
+    private static void writeTwoDigits(char[] chars, int index, int value) {
+        chars[index] = (char) ('0' + value / 10);
+        chars[index + 1] = (char) ('0' + value % 10);
     }
 
 }
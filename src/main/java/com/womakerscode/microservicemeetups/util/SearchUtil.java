@@ -0,0 +1,39 @@
+package com.womakerscode.microservicemeetups.util;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalizacao e trigramas usados na busca textual (titulo do evento e nome do cracha).
+ */
+public class SearchUtil {
+
+    public static final int TRIGRAM_LENGTH = 3;
+
+    public static String normalize(String text) {
+        return text == null ? null : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Trigramas distintos do texto ja normalizado; vazio quando o texto tem menos de tres caracteres.
+     */
+    public static Set<String> trigrams(String normalizedText) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (normalizedText == null) {
+            return trigrams;
+        }
+        for (int i = 0; i + TRIGRAM_LENGTH <= normalizedText.length(); i++) {
+            trigrams.add(normalizedText.substring(i, i + TRIGRAM_LENGTH));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Escapa os curingas do LIKE com '\'.
+     */
+    public static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+}
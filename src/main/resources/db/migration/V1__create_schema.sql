@@ -0,0 +1,43 @@
+create table event (
+    event_id bigint generated by default as identity,
+    title varchar(255),
+    description varchar(255),
+    title_normalized varchar(255),
+    creation_date timestamp,
+    start_date timestamp,
+    end_date timestamp,
+    event_type_enum varchar(255),
+    organizer_id bigint,
+    primary key (event_id)
+);
+
+create table event_title_trigram (
+    event_id bigint not null,
+    trigram varchar(3) not null,
+    primary key (event_id, trigram),
+    constraint fk_event_title_trigram_event foreign key (event_id) references event (event_id)
+);
+
+create table registration (
+    registration_id bigint generated by default as identity,
+    name_tag varchar(255),
+    name_tag_normalized varchar(255),
+    date_of_registration timestamp,
+    event_id bigint not null,
+    participant_id bigint,
+    primary key (registration_id),
+    constraint fk_registration_event foreign key (event_id) references event (event_id)
+);
+
+create table registration_name_tag_trigram (
+    registration_id bigint not null,
+    trigram varchar(3) not null,
+    primary key (registration_id, trigram),
+    constraint fk_registration_name_tag_trigram_registration foreign key (registration_id)
+        references registration (registration_id)
+);
+
+create index idx_event_title_normalized on event (title_normalized);
+create index idx_event_title_trigram on event_title_trigram (trigram, event_id);
+create index idx_registration_name_tag_normalized on registration (name_tag_normalized);
+create index idx_registration_name_tag_trigram on registration_name_tag_trigram (trigram, registration_id);
@@ -0,0 +1,7 @@
+-- EventRepository.findByEventExistent: mesmo titulo, periodo e organizador
+alter table event add constraint uk_event_title_period_organizer
+    unique (title, start_date, end_date, organizer_id);
+
+-- RegistrationRepository.findExistingRegistrationEvent: participante inscrito uma vez por evento
+alter table registration add constraint uk_registration_event_participant
+    unique (event_id, participant_id);
@@ -0,0 +1,5 @@
+-- Registration deixa o IDENTITY (que impede o batch de inserts do JDBC) por uma sequence com pooled optimizer:
+-- o Hibernate reserva 50 ids por chamada, a partir do maior id ja existente
+create sequence registration_sequence start with 1 increment by 50;
+alter sequence registration_sequence restart with (select coalesce(max(registration_id), 0) + 50 from registration);
+alter table registration alter column registration_id bigint not null;
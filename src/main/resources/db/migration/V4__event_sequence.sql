@@ -0,0 +1,8 @@
+-- Event deixa o IDENTITY pela sequence com pooled optimizer, como Registration (V3). O incremento das duas
+-- sequences acompanha o allocation size configurado (meetups.id.allocation-size); para altera-lo depois, uma nova
+-- migration precisa ajustar o incremento, senao o Hibernate recusa a subida
+create sequence event_sequence start with 1 increment by ${id_allocation_size};
+alter sequence event_sequence restart with (select coalesce(max(event_id), 0) + ${id_allocation_size} from event);
+alter table event alter column event_id bigint not null;
+
+alter sequence registration_sequence increment by ${id_allocation_size};
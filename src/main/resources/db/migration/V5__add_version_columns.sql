@@ -0,0 +1,5 @@
+-- versoes usadas no lock otimista e nos ETags: event.version muda com o proprio evento, registrations_version
+-- com qualquer alteracao nas inscricoes dele (o GET do evento as inclui)
+alter table event add column version bigint default 0 not null;
+alter table event add column registrations_version bigint default 0 not null;
+alter table registration add column version bigint default 0 not null;
@@ -0,0 +1,9 @@
+-- vagas do evento (null = sem limite) e total de inscricoes, mantido pelo RegistrationServiceImpl no mesmo update
+-- que confere a capacidade
+alter table event add column capacity integer;
+alter table event add column registration_count integer default 0 not null;
+
+update event set registration_count = (select count(*) from registration where registration.event_id = event.event_id);
+
+alter table event add constraint ck_event_registration_count
+    check (capacity is null or registration_count <= capacity);
@@ -0,0 +1,5 @@
+-- lista de espera: inscricoes feitas com o evento lotado ficam WAITLISTED e nao entram no registration_count
+alter table registration add column status varchar(20) default 'CONFIRMED' not null;
+
+-- proxima da lista de espera, confirmada quando uma vaga e liberada
+create index idx_registration_event_status on registration (event_id, status, date_of_registration);
@@ -0,0 +1,3 @@
+-- inscricoes de um evento em ordem de id: paginacao por cursor do GET /api/event/{id}/registrations e as
+-- primeiras inscricoes embutidas nas respostas do evento
+create index idx_registration_event_id on registration (event_id, registration_id);
@@ -0,0 +1,92 @@
+package com.womakerscode.microservicemeetups.controller;
+
+import com.womakerscode.microservicemeetups.controller.dto.EventPostRequestBody;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.repository.EventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.womakerscode.microservicemeetups.util.DateUtil.formatLocalDateTimeToStringWithTime;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EventConcurrencyTest {
+
+    private static final String EVENT_API = "/api/event";
+
+    private static final int REQUESTS = 500;
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Test
+    @DisplayName("Should create a single event when the same event is posted concurrently")
+    public void createDuplicatedEventsConcurrently() throws Exception {
+
+        LocalDateTime startDate = LocalDateTime.of(2022, 3, 24, 19, 0);
+        EventPostRequestBody body = EventPostRequestBody.builder()
+                .title("Encontro concorrente")
+                .description("Cadastro disparado por varias requisicoes ao mesmo tempo")
+                .startDate(formatLocalDateTimeToStringWithTime(startDate))
+                .endDate(formatLocalDateTimeToStringWithTime(startDate.plusHours(2)))
+                .eventTypeEnum(EventTypeEnum.ONLINE)
+                .organizerId(77L)
+                .build();
+
+        // todas as threads disparam juntas, para que os inserts disputem a mesma chave
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return restTemplate.postForEntity(EVENT_API, body, String.class);
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        int duplicated = 0;
+        for (Future<ResponseEntity<String>> future : futures) {
+            ResponseEntity<String> response = future.get(1, TimeUnit.MINUTES);
+            if (response.getStatusCode() == HttpStatus.CREATED) {
+                created++;
+            } else {
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(response.getBody()).contains("Event already created");
+                duplicated++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(created).isEqualTo(1);
+        assertThat(duplicated).isEqualTo(REQUESTS - 1);
+        assertThat(eventRepository.findAll())
+                .filteredOn(event -> event.getOrganizerId().equals(77L))
+                .extracting(Event::getTitle)
+                .containsExactly("Encontro concorrente");
+    }
+
+}
@@ -4,11 +4,15 @@ import com.womakerscode.microservicemeetups.controller.dto.EventPostRequestBody;
 import com.womakerscode.microservicemeetups.controller.dto.EventPutRequestBody;
 import com.womakerscode.microservicemeetups.controller.dto.EventRequestFilter;
 import com.womakerscode.microservicemeetups.controller.dto.EventResponse;
+import com.womakerscode.microservicemeetups.controller.render.EventResponseRenderer;
 import com.womakerscode.microservicemeetups.controller.resource.EventController;
 import com.womakerscode.microservicemeetups.exception.BusinessException;
 import com.womakerscode.microservicemeetups.model.entity.Event;
 import com.womakerscode.microservicemeetups.model.entity.Registration;
 import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.repository.projection.EventSummary;
+import com.womakerscode.microservicemeetups.repository.projection.EventVersion;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
 import com.womakerscode.microservicemeetups.service.EventService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
@@ -20,10 +24,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -33,17 +43,24 @@ import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.womakerscode.microservicemeetups.util.DateUtil.formatLocalDateTimeToStringWithTime;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyLong;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @WebMvcTest(controllers = {EventController.class})
+@Import(EventResponseRenderer.class)
 @AutoConfigureMockMvc
 public class EventControllerTest {
 
@@ -214,6 +231,7 @@ public class EventControllerTest {
                 .build();
 
         BDDMockito.given(eventService.getById(id)).willReturn(Optional.of(event));
+        BDDMockito.given(eventService.getVersion(id)).willReturn(Optional.of(eventVersion(2L, 5L)));
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
                 .get(EVENT_API.concat("/" + id))
@@ -228,10 +246,32 @@ public class EventControllerTest {
                 .andExpect(jsonPath("startDate").value(eventResponse.getStartDate()))
                 .andExpect(jsonPath("endDate").value(eventResponse.getEndDate()))
                 .andExpect(jsonPath("eventTypeEnum").value(eventResponse.getEventTypeEnum().name()))
-                .andExpect(jsonPath("organizerId").value(eventResponse.getOrganizerId()));
+                .andExpect(jsonPath("organizerId").value(eventResponse.getOrganizerId()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2.5\""));
 
     }
 
+    @Test
+    @DisplayName("Should return NOT MODIFIED checking only the event versions")
+    public void getEventNotModifiedTest() throws Exception {
+
+        BDDMockito.given(eventService.getVersion(11L)).willReturn(Optional.of(eventVersion(2L, 5L)));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(EVENT_API.concat("/11"))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2.5\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2.5\""))
+                .andExpect(content().string(""));
+
+        Mockito.verify(eventService, Mockito.never()).getById(anyLong());
+        Mockito.verify(eventService, Mockito.never()).getRegistrations(anyLong());
+    }
+
     @Test
     @DisplayName("Should return not found when the event doesn't exists")
     public void eventNotFoundTest() throws Exception {
@@ -251,6 +291,7 @@ public class EventControllerTest {
     @DisplayName("Should delete the event")
     public void deleteEvent() throws Exception {
 
+        BDDMockito.given(eventService.getVersion(anyLong())).willReturn(Optional.of(eventVersion(1L, 0L)));
         BDDMockito.given(eventService.getById(anyLong()))
                 .willReturn(Optional.of(Event.builder().id(101L).build()));
 
@@ -260,6 +301,9 @@ public class EventControllerTest {
 
         mockMvc.perform(requestBuilder)
                 .andExpect(status().isNoContent());
+
+        // a versao conferida no delete e a do banco, nao a da copia em cache
+        Mockito.verify(eventService).delete(argThat(event -> event.getVersion() == 1L));
     }
 
     @Test
@@ -278,7 +322,7 @@ public class EventControllerTest {
     }
 
     @Test
-    @DisplayName("Should delete the event")
+    @DisplayName("Should not delete the event when it has registrations")
     public void cannotDeleteWhenEventHasRegistrationsTest() throws Exception {
 
         Event event = createNewEvent();
@@ -286,9 +330,10 @@ public class EventControllerTest {
         event.setOrganizerId(5L);
         event.setRegistrations(List.of(Registration.builder().id(22L).build()));
 
+        BDDMockito.given(eventService.getVersion(anyLong())).willReturn(Optional.of(eventVersion(0L, 1L)));
         BDDMockito.given(eventService.getById(anyLong())).willReturn(Optional.of(event));
         BDDMockito.doThrow(new BusinessException("The event cannot be deleted as it has active registrations"))
-                .when(eventService).validateEventWithRegistrationsForDelete(any(Event.class));
+                .when(eventService).delete(any(Event.class));
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
                 .delete(EVENT_API.concat("/" + event.getId()))
@@ -340,22 +385,33 @@ public class EventControllerTest {
                 .organizerId(putEvent.getOrganizerId())
                 .build();
 
-        BDDMockito.given(eventService.getById(anyLong())).willReturn(Optional.of(eventReturnedFromDatabaseForUpdate));
-
         Event updatedEvent = createNewEvent();
         updatedEvent.setId(eventId);
         updatedEvent.setOrganizerId(organizerId);
+        updatedEvent.setVersion(3L);
+
+        // antes e depois do update (a resposta e renderizada com o evento relido)
+        BDDMockito.given(eventService.getVersion(eventId))
+                .willReturn(Optional.of(eventVersion(2L, 5L)), Optional.of(eventVersion(3L, 5L)));
+        BDDMockito.given(eventService.getById(anyLong()))
+                .willReturn(Optional.of(eventReturnedFromDatabaseForUpdate), Optional.of(updatedEvent));
 
-        BDDMockito.given(eventService.update(eventReturnedFromDatabaseForUpdate)).willReturn(updatedEvent);
+        // as versoes da copia enviada ao update sao as lidas do banco
+        BDDMockito.given(eventService.update(argThat(event -> event != eventReturnedFromDatabaseForUpdate
+                && event.getTitle().equals(putEvent.getTitle()) && event.getVersion() == 2L
+                && event.getRegistrationsVersion() == 5L)))
+                .willReturn(updatedEvent);
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
                 .put(EVENT_API.concat("/" + eventId))
+                .header(HttpHeaders.IF_MATCH, "\"2.5\"")
                 .content(json)
                 .accept(MediaType.APPLICATION_JSON)
                 .contentType(MediaType.APPLICATION_JSON);
 
         mockMvc.perform(requestBuilder)
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.5-count\""))
                 .andExpect(jsonPath("id").value(eventId))
                 .andExpect(jsonPath("title").value(eventPutResponse.getTitle()))
                 .andExpect(jsonPath("description").value(eventPutResponse.getDescription()))
@@ -363,8 +419,96 @@ public class EventControllerTest {
                 .andExpect(jsonPath("startDate").value(eventPutResponse.getStartDate()))
                 .andExpect(jsonPath("endDate").value(eventPutResponse.getEndDate()))
                 .andExpect(jsonPath("eventTypeEnum").value(eventPutResponse.getEventTypeEnum().name()))
-                .andExpect(jsonPath("organizerId").value(eventPutResponse.getOrganizerId()));
+                .andExpect(jsonPath("organizerId").value(eventPutResponse.getOrganizerId()))
+                .andExpect(jsonPath("registrationCount").value(0))
+                .andExpect(jsonPath("registrations").doesNotExist());
+
+        // a instancia devolvida pelo getById (a do cache) nao e alterada
+        assertThat(eventReturnedFromDatabaseForUpdate.getTitle()).isEqualTo("título XXXX");
+        // por padrao so o total: as inscricoes nao sao carregadas
+        Mockito.verify(eventService, Mockito.never()).getRegistrations(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should update the event with the ETag of a partial representation and embed its registrations")
+    public void updateEventWithEmbedTest() throws Exception {
+
+        Event event = createNewEvent();
+        event.setId(11L);
+        String json = new ObjectMapper().writeValueAsString(createEventPutRequestBody());
+
+        BDDMockito.given(eventService.getVersion(11L))
+                .willReturn(Optional.of(eventVersion(2L, 5L)), Optional.of(eventVersion(3L, 5L)));
+        BDDMockito.given(eventService.getById(11L)).willReturn(Optional.of(event));
+        BDDMockito.given(eventService.update(any(Event.class))).willReturn(event);
+        RegistrationSummary registration = RegistrationSummary.builder()
+                .id(21L)
+                .eventId(11L)
+                .participantId(23L)
+                .build();
+        BDDMockito.given(eventService.getRegistrations(11L, 0L, 2))
+                .willReturn(new SliceImpl<>(List.of(registration), PageRequest.of(0, 2), false));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put(EVENT_API.concat("/11"))
+                .queryParam("embed", "first-2")
+                // o ETag do GET com ?embed=count descreve as mesmas versoes
+                .header(HttpHeaders.IF_MATCH, "\"2.5-count\"")
+                .content(json)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.5-first-2\""))
+                .andExpect(jsonPath("registrations", Matchers.hasSize(1)))
+                .andExpect(jsonPath("registrations[0].participantId").value(23));
+
+        Mockito.verify(eventService, Mockito.never()).getRegistrations(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should return PRECONDITION FAILED when the If-Match is not the current event ETag")
+    public void updateEventPreconditionFailedTest() throws Exception {
+
+        String json = new ObjectMapper().writeValueAsString(createEventPutRequestBody());
+        BDDMockito.given(eventService.getVersion(11L)).willReturn(Optional.of(eventVersion(3L, 5L)));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put(EVENT_API.concat("/11"))
+                .header(HttpHeaders.IF_MATCH, "\"2.5\"")
+                .content(json)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isPreconditionFailed());
+
+        Mockito.verify(eventService, Mockito.never()).update(any(Event.class));
+    }
+
+    @Test
+    @DisplayName("Should return CONFLICT when the event was updated by another request")
+    public void updateEventConflictTest() throws Exception {
+
+        Event event = createNewEvent();
+        event.setId(11L);
+        String json = new ObjectMapper().writeValueAsString(createEventPutRequestBody());
+
+        BDDMockito.given(eventService.getVersion(11L)).willReturn(Optional.of(eventVersion(2L, 5L)));
+        BDDMockito.given(eventService.getById(11L)).willReturn(Optional.of(event));
+        BDDMockito.given(eventService.update(any(Event.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Event.class, 11L));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put(EVENT_API.concat("/11"))
+                .content(json)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
 
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("errors[0]").value("The resource was changed by another request"));
     }
 
     @Test
@@ -423,6 +567,7 @@ public class EventControllerTest {
         foundEvent.setId(updatingEvent.getId());
         foundEvent.setOrganizerId(updatingEvent.getOrganizerId());
 
+        BDDMockito.given(eventService.getVersion(anyLong())).willReturn(Optional.of(eventVersion(0L, 0L)));
         BDDMockito.given(eventService.getById(anyLong())).willReturn(Optional.of(foundEvent));
         BDDMockito.doThrow(new BusinessException("The event end date cannot be greater than the event start date"))
                 .when(eventService).validateTheEventPeriod(any(Event.class));
@@ -458,8 +603,12 @@ public class EventControllerTest {
                 .title(event.getTitle())
                 .build();
 
-        BDDMockito.given(eventService.find(Mockito.any(Event.class), Mockito.any(Pageable.class)) )
-                .willReturn(new PageImpl<Event>(List.of(event)
+        BDDMockito.given(eventService.find(Mockito.any(Event.class), Mockito.any(Pageable.class), Mockito.isNull()))
+                .willReturn(new PageImpl<EventSummary>(List.of(toSummary(event, RegistrationSummary.builder()
+                        .id(5L)
+                        .eventId(event.getId())
+                        .participantId(23L)
+                        .build()))
                         , PageRequest.of(0,100), 1));
 
         String queryString = String.format("?id=%d&title=%s&page=0&size=100",
@@ -475,11 +624,232 @@ public class EventControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("content", Matchers.hasSize(1)))
                 .andExpect(jsonPath("totalElements").value(1))
+                .andExpect(jsonPath("content[0].registrations[0].participantId").value(23))
                 .andExpect(jsonPath("pageable.pageSize").value(100))
                 .andExpect(jsonPath("pageable.pageNumber").value(0));
 
     }
 
+    @Test
+    @DisplayName("Should filter events by cursor without counting the total")
+    public void findEventAfterTest() throws Exception {
+
+        Event event = createNewEvent();
+        event.setId(15L);
+        event.setOrganizerId(1L);
+
+        BDDMockito.given(eventService.findAfter(Mockito.any(Event.class), eq(10L), eq(1), Mockito.isNull()))
+                .willReturn(new SliceImpl<EventSummary>(List.of(toSummary(event)), PageRequest.of(0, 1, Sort.by("id")),
+                        true));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(EVENT_API.concat("?title=mulheres&after=10&size=1"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("content[0].id").value(15))
+                .andExpect(jsonPath("size").value(1))
+                .andExpect(jsonPath("hasNext").value(true))
+                .andExpect(jsonPath("nextCursor").value(15))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+
+        Mockito.verify(eventService, Mockito.never())
+                .find(Mockito.any(Event.class), Mockito.any(Pageable.class), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Should filter events without the total count")
+    public void findEventWithoutCountTest() throws Exception {
+
+        Event event = createNewEvent();
+        event.setId(11L);
+
+        BDDMockito.given(eventService.findSlice(Mockito.any(Event.class), Mockito.any(Pageable.class),
+                Mockito.isNull()))
+                .willReturn(new SliceImpl<EventSummary>(List.of(toSummary(event)), PageRequest.of(0, 1), true));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(EVENT_API.concat("?title=mulheres&count=none&page=0&size=1"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("last").value(false))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+
+        Mockito.verify(eventService, Mockito.never())
+                .find(Mockito.any(Event.class), Mockito.any(Pageable.class), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Should filter events with the cached total count")
+    public void findEventWithCachedCountTest() throws Exception {
+
+        Event event = createNewEvent();
+        event.setId(11L);
+
+        BDDMockito.given(eventService.findWithCachedCount(Mockito.any(Event.class), Mockito.any(Pageable.class),
+                Mockito.isNull()))
+                .willReturn(new PageImpl<EventSummary>(List.of(toSummary(event)), PageRequest.of(0, 1), 40));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(EVENT_API.concat("?count=cached&page=0&size=1"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("totalElements").value(40));
+    }
+
+    @Test
+    @DisplayName("Should get the event with only its first registrations")
+    public void getEventFirstRegistrationsTest() throws Exception {
+
+        Event event = createNewEvent();
+        event.setId(11L);
+        RegistrationSummary registration = RegistrationSummary.builder()
+                .id(5L)
+                .eventId(11L)
+                .participantId(23L)
+                .build();
+
+        BDDMockito.given(eventService.getById(11L)).willReturn(Optional.of(event));
+        BDDMockito.given(eventService.getVersion(11L)).willReturn(Optional.of(eventVersion(2L, 5L)));
+        BDDMockito.given(eventService.getRegistrations(11L, 0L, 2))
+                .willReturn(new SliceImpl<>(List.of(registration), PageRequest.of(0, 2), false));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(EVENT_API.concat("/11?embed=first-2"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("registrations", Matchers.hasSize(1)))
+                .andExpect(jsonPath("registrations[0].participantId").value(23))
+                .andExpect(jsonPath("registrationCount").value(0))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2.5-first-2\""));
+
+        Mockito.verify(eventService, Mockito.never()).getRegistrations(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should get the event without its registrations")
+    public void getEventWithoutRegistrationsTest() throws Exception {
+
+        Event event = createNewEvent();
+        event.setId(11L);
+
+        BDDMockito.given(eventService.getById(11L)).willReturn(Optional.of(event));
+        BDDMockito.given(eventService.getVersion(11L)).willReturn(Optional.of(eventVersion(2L, 5L)));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(EVENT_API.concat("/11?embed=none"))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2.5\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // o ETag da resposta completa nao vale para a variante sem inscricoes
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(11))
+                .andExpect(jsonPath("registrations").doesNotExist())
+                .andExpect(jsonPath("registrationCount").doesNotExist())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2.5-none\""));
+
+        Mockito.verify(eventService, Mockito.never()).getRegistrations(anyLong());
+        Mockito.verify(eventService, Mockito.never()).getRegistrations(anyLong(), anyLong(), Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Should return BAD REQUEST for an invalid embed")
+    public void getEventInvalidEmbedTest() throws Exception {
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(EVENT_API.concat("/11?embed=first-0"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(eventService);
+    }
+
+    @Test
+    @DisplayName("Should page the event registrations by cursor")
+    public void findEventRegistrationsTest() throws Exception {
+
+        RegistrationSummary registration = RegistrationSummary.builder()
+                .id(8L)
+                .eventId(11L)
+                .participantId(23L)
+                .build();
+
+        BDDMockito.given(eventService.getById(11L)).willReturn(Optional.of(Event.builder().id(11L).build()));
+        BDDMockito.given(eventService.getRegistrations(11L, 5L, 1))
+                .willReturn(new SliceImpl<>(List.of(registration), PageRequest.of(0, 1), true));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(EVENT_API.concat("/11/registrations?after=5&size=1"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(jsonPath("content[0].participantId").value(23))
+                .andExpect(jsonPath("hasNext").value(true))
+                .andExpect(jsonPath("nextCursor").value(8));
+    }
+
+    @Test
+    @DisplayName("Should return not found for the registrations of an event that doesn't exist")
+    public void findEventRegistrationsNotFoundTest() throws Exception {
+
+        BDDMockito.given(eventService.getById(anyLong())).willReturn(Optional.empty());
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(EVENT_API.concat("/11/registrations"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isNotFound());
+
+        Mockito.verify(eventService, Mockito.never()).getRegistrations(anyLong(), anyLong(), Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Should filter events with only the registration count")
+    public void findEventRegistrationCountTest() throws Exception {
+
+        Event event = createNewEvent();
+        event.setId(11L);
+        event.setRegistrationCount(3);
+        EventSummary summary = toSummary(event);
+        // sem inscricoes o service nao preenche a lista
+        summary.setRegistrations(null);
+
+        BDDMockito.given(eventService.find(Mockito.any(Event.class), Mockito.any(Pageable.class), eq(0)))
+                .willReturn(new PageImpl<EventSummary>(List.of(summary), PageRequest.of(0, 1), 1));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(EVENT_API.concat("?embed=count&page=0&size=1"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content[0].registrationCount").value(3))
+                .andExpect(jsonPath("content[0].registrations").doesNotExist());
+    }
+
     private Event createNewEvent() {
         return Event.builder()
                 .title("Encontro Mulheres e Carreira em Tecnologia")
@@ -491,4 +861,27 @@ public class EventControllerTest {
                 .build();
     }
 
+    private EventSummary toSummary(Event event, RegistrationSummary... registrations) {
+        EventSummary summary = new EventSummary(event.getId(), event.getTitle(), event.getDescription(),
+                event.getCreationDate(), event.getStartDate(), event.getEndDate(), event.getEventTypeEnum(),
+                event.getOrganizerId(), event.getCapacity(), event.getRegistrationCount());
+        summary.setRegistrations(List.of(registrations));
+        return summary;
+    }
+
+    private EventVersion eventVersion(long version, long registrationsVersion) {
+        return new SpelAwareProxyProjectionFactory().createProjection(EventVersion.class,
+                Map.of("version", version, "registrationsVersion", registrationsVersion, "registrationCount", 0));
+    }
+
+    private EventPutRequestBody createEventPutRequestBody() {
+        Event event = createNewEvent();
+        return EventPutRequestBody.builder()
+                .title(event.getTitle())
+                .description(event.getDescription())
+                .startDate(formatLocalDateTimeToStringWithTime(event.getStartDate()))
+                .endDate(formatLocalDateTimeToStringWithTime(event.getEndDate()))
+                .build();
+    }
+
 }
@@ -0,0 +1,95 @@
+package com.womakerscode.microservicemeetups.controller;
+
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationPostRequestBody;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.repository.EventRepository;
+import com.womakerscode.microservicemeetups.repository.EventRepositoryTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Remocao do evento disputando com inscricoes simultaneas: ou o evento e removido sem inscricoes, ou a remocao
+ * e recusada (400) e as inscricoes ficam; nenhuma das requisicoes termina em erro do servidor.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EventDeleteConcurrencyTest {
+
+    private static final String EVENT_API = "/api/event";
+
+    private static final String REGISTRATION_API = "/api/registration";
+
+    private static final int ROUNDS = 20;
+
+    private static final int REGISTRATIONS = 4;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Test
+    @DisplayName("Should delete the event or reject the delete when registrations are created concurrently")
+    public void deleteEventWhileRegistering() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(REGISTRATIONS + 1);
+        for (int round = 0; round < ROUNDS; round++) {
+            Event event = EventRepositoryTest.createNewEvent();
+            event.setTitle("Remocao com inscricoes " + round);
+            Long eventId = eventRepository.save(event).getId();
+            // o evento fica no cache, como quando as inscricoes chegam logo depois de uma leitura
+            restTemplate.getForEntity(EVENT_API + "/" + eventId, String.class);
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<HttpStatus>> registrations = new ArrayList<>();
+            for (long participantId = 1; participantId <= REGISTRATIONS; participantId++) {
+                RegistrationPostRequestBody body = RegistrationPostRequestBody.builder()
+                        .eventId(eventId)
+                        .nameTag("Participante " + participantId)
+                        .participantId(participantId)
+                        .build();
+                registrations.add(executor.submit(() -> {
+                    start.await();
+                    return restTemplate.postForEntity(REGISTRATION_API, body, String.class).getStatusCode();
+                }));
+            }
+            Future<HttpStatus> delete = executor.submit(() -> {
+                start.await();
+                return restTemplate.exchange(EVENT_API + "/" + eventId, HttpMethod.DELETE, null, String.class)
+                        .getStatusCode();
+            });
+            start.countDown();
+
+            for (Future<HttpStatus> registration : registrations) {
+                assertThat(registration.get(1, TimeUnit.MINUTES))
+                        .isIn(HttpStatus.CREATED, HttpStatus.ACCEPTED, HttpStatus.BAD_REQUEST);
+            }
+            HttpStatus deleteStatus = delete.get(1, TimeUnit.MINUTES);
+            assertThat(deleteStatus).isIn(HttpStatus.NO_CONTENT, HttpStatus.BAD_REQUEST);
+            if (deleteStatus == HttpStatus.NO_CONTENT) {
+                assertThat(eventRepository.existsById(eventId)).isFalse();
+            } else {
+                assertThat(eventRepository.hasRegistrations(eventId)).isTrue();
+            }
+        }
+        executor.shutdown();
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.womakerscode.microservicemeetups.controller;
+
+import com.womakerscode.microservicemeetups.controller.dto.EventPutRequestBody;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationPostRequestBody;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationPutRequestBody;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationResponse;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.repository.EventRepository;
+import com.womakerscode.microservicemeetups.repository.EventRepositoryTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.womakerscode.microservicemeetups.util.DateUtil.formatLocalDateTimeToStringWithTime;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EventResponseCacheTest {
+
+    private static final String EVENT_API = "/api/event/";
+
+    private static final String COUNT = "?embed=count";
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Test
+    @DisplayName("Should revalidate the event with its ETag and change it when a registration is created")
+    public void revalidateEventAfterRegistration() {
+
+        Event event = EventRepositoryTest.createNewEvent();
+        event.setTitle("Encontro com cache de resposta");
+        event = eventRepository.save(event);
+
+        ResponseEntity<String> first = restTemplate.getForEntity(EVENT_API + event.getId(), String.class);
+        ResponseEntity<String> second = restTemplate.getForEntity(EVENT_API + event.getId(), String.class);
+        String eTag = first.getHeaders().getETag();
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(eTag).isNotBlank();
+        assertThat(second.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(get(event.getId(), eTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        RegistrationPostRequestBody registration = RegistrationPostRequestBody.builder()
+                .eventId(event.getId())
+                .nameTag("Michely Souza")
+                .participantId(7L)
+                .build();
+        assertThat(restTemplate.postForEntity("/api/registration", registration, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+
+        // a inscricao remove a resposta do cache: o ETag antigo deixa de valer
+        ResponseEntity<String> changed = get(event.getId(), eTag);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(eTag);
+        assertThat(changed.getBody()).contains("Michely Souza");
+    }
+
+    @Test
+    @DisplayName("Should update a registration read in a read-only transaction and change the event response")
+    public void updateRegistrationAfterReadOnlyRead() {
+
+        Event event = EventRepositoryTest.createNewEvent();
+        event.setTitle("Encontro com inscricao alterada");
+        event = eventRepository.save(event);
+        RegistrationPostRequestBody registration = RegistrationPostRequestBody.builder()
+                .eventId(event.getId())
+                .nameTag("Michely Souza")
+                .participantId(8L)
+                .build();
+        Long id = restTemplate.postForObject("/api/registration", registration, RegistrationResponse.class).getId();
+        String eTag = restTemplate.getForEntity(EVENT_API + event.getId(), String.class).getHeaders().getETag();
+
+        // o PUT le a inscricao em uma transacao somente leitura e grava a copia desanexada em outra
+        HttpEntity<RegistrationPutRequestBody> put = new HttpEntity<>(
+                RegistrationPutRequestBody.builder().nameTag("Michely S.").build());
+        assertThat(restTemplate.exchange("/api/registration/" + id, HttpMethod.PUT, put, String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(restTemplate.getForObject("/api/registration/" + id, RegistrationResponse.class).getNameTag())
+                .isEqualTo("Michely S.");
+        ResponseEntity<String> changed = get(event.getId(), eTag);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getBody()).contains("Michely S.");
+    }
+
+    @Test
+    @DisplayName("Should answer a PUT with the same ETag as the next GET after a registration")
+    public void updateEventAfterRegistration() {
+
+        Event event = EventRepositoryTest.createNewEvent();
+        event.setTitle("Encontro alterado apos inscricao");
+        event = eventRepository.save(event);
+        // o GET guarda o evento no cache, que a inscricao seguinte nao remove; ?embed=count e a representacao
+        // devolvida pelo PUT
+        String eTag = restTemplate.getForEntity(EVENT_API + event.getId() + COUNT, String.class).getHeaders()
+                .getETag();
+        RegistrationPostRequestBody registration = RegistrationPostRequestBody.builder()
+                .eventId(event.getId())
+                .nameTag("Michely Souza")
+                .participantId(9L)
+                .build();
+        assertThat(restTemplate.postForEntity("/api/registration", registration, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+
+        ResponseEntity<String> updated = put(event, "Encontro alterado", null);
+        String next = restTemplate.getForEntity(EVENT_API + event.getId() + COUNT, String.class).getHeaders()
+                .getETag();
+
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getHeaders().getETag()).isNotEqualTo(eTag).isEqualTo(next);
+        // o ETag do PUT serve no If-Match da alteracao seguinte
+        assertThat(put(event, "Encontro alterado de novo", updated.getHeaders().getETag()).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+
+    private ResponseEntity<String> put(Event event, String title, String ifMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ifMatch != null) {
+            headers.setIfMatch(ifMatch);
+        }
+        EventPutRequestBody body = EventPutRequestBody.builder()
+                .title(title)
+                .description(event.getDescription())
+                .startDate(formatLocalDateTimeToStringWithTime(event.getStartDate()))
+                .endDate(formatLocalDateTimeToStringWithTime(event.getEndDate()))
+                .build();
+        return restTemplate.exchange(EVENT_API + event.getId(), HttpMethod.PUT, new HttpEntity<>(body, headers),
+                String.class);
+    }
+
+    private ResponseEntity<String> get(Long id, String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        return restTemplate.exchange(EVENT_API + id, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+}
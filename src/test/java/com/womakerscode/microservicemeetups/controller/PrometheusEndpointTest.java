@@ -0,0 +1,82 @@
+package com.womakerscode.microservicemeetups.controller;
+
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationPostRequestBody;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.EventRepositoryTest;
+import com.womakerscode.microservicemeetups.service.EventService;
+import com.womakerscode.microservicemeetups.service.RegistrationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+// sem ela os testes do Spring Boot desligam a exportacao para o Prometheus
+@AutoConfigureMetrics
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class PrometheusEndpointTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    RegistrationService registrationService;
+
+    @Test
+    @DisplayName("Should publish endpoint, service, repository, pool and JVM timers for Prometheus")
+    public void scrapeMetrics() {
+
+        Event event = EventRepositoryTest.createNewEvent();
+        event.setTitle("Encontro com metricas");
+        event.setCreationDate(LocalDateTime.now());
+        // validacao em memoria, sem timer
+        eventService.validateTheEventPeriod(event);
+        event = eventService.save(event);
+        assertThat(eventService.findByEventExistent(event)).isPresent();
+        RegistrationPostRequestBody registration = RegistrationPostRequestBody.builder()
+                .eventId(event.getId())
+                .nameTag("Michely Souza")
+                .participantId(9L)
+                .build();
+        assertThat(restTemplate.postForEntity("/api/registration", registration, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+        assertThat(registrationService.findByExistingRegistrationForTheEvent(
+                Registration.builder().event(event).participantId(9L).build())).isPresent();
+        assertThat(restTemplate.getForEntity("/api/event/" + event.getId(), String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .containsPattern("http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/event/\\{id}\"")
+                .containsPattern("http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/registration\"")
+                .containsPattern("meetups_service_seconds_bucket\\{class=\"[^\"]*EventServiceImpl\"[^}]*"
+                        + "method=\"save\"")
+                .containsPattern("meetups_service_seconds_bucket\\{class=\"[^\"]*RegistrationServiceImpl\"[^}]*"
+                        + "method=\"save\"")
+                .doesNotContain("method=\"validateTheEventPeriod\"")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{[^}]*"
+                        + "method=\"findByEventExistent\"")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{[^}]*"
+                        + "method=\"findExistingRegistrationEvent\"")
+                .containsPattern("hikaricp_connections_acquire_seconds_bucket\\{")
+                .contains("hikaricp_connections_active")
+                .contains("jvm_memory_used_bytes")
+                .contains("jvm_threads_live_threads");
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.womakerscode.microservicemeetups.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.womakerscode.microservicemeetups.controller.resource.ReactiveEventController;
+import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import com.womakerscode.microservicemeetups.repository.reactive.EventRow;
+import com.womakerscode.microservicemeetups.repository.reactive.RegistrationRow;
+import com.womakerscode.microservicemeetups.service.ReactiveEventService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = {ReactiveEventController.class}, properties = "meetups.r2dbc.enabled=true")
+@AutoConfigureMockMvc
+public class ReactiveEventControllerTest {
+
+    static String REACTIVE_EVENT_API = "/api/reactive/event";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    ReactiveEventService reactiveEventService;
+
+    @Test
+    @DisplayName("Should get an event with its registrations from the reactive API")
+    public void getEventTest() throws Exception {
+
+        EventRow event = createEventRow(11L);
+        BDDMockito.given(reactiveEventService.getById(11L)).willReturn(Mono.just(event));
+
+        MvcResult result = mockMvc
+                .perform(MockMvcRequestBuilders.get(REACTIVE_EVENT_API.concat("/11"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(11L))
+                .andExpect(jsonPath("title").value(event.getTitle()))
+                .andExpect(jsonPath("registrationCount").value(1))
+                .andExpect(jsonPath("registrations", hasSize(1)))
+                .andExpect(jsonPath("registrations[0].nameTag").value("Maria"))
+                .andExpect(jsonPath("registrations[0].status").value("CONFIRMED"));
+    }
+
+    @Test
+    @DisplayName("Should return NOT FOUND when the event does not exist in the reactive API")
+    public void getEventNotFoundTest() throws Exception {
+
+        BDDMockito.given(reactiveEventService.getById(anyLong())).willReturn(Mono.empty());
+
+        MvcResult result = mockMvc
+                .perform(MockMvcRequestBuilders.get(REACTIVE_EVENT_API.concat("/1")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should list the events as a JSON array")
+    public void findEventsJsonTest() throws Exception {
+
+        BDDMockito.given(reactiveEventService.find(eq("spring"), eq(10L), eq(2)))
+                .willReturn(Flux.just(createEventRow(11L), createEventRow(12L)));
+
+        MvcResult result = mockMvc
+                .perform(MockMvcRequestBuilders.get(REACTIVE_EVENT_API.concat("?title=spring&after=10&size=2"))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id").value(12L));
+    }
+
+    @Test
+    @DisplayName("Should stream the events as NDJSON")
+    public void findEventsNdjsonTest() throws Exception {
+
+        BDDMockito.given(reactiveEventService.find(eq(null), eq(0L), eq(20)))
+                .willReturn(Flux.just(createEventRow(11L), createEventRow(12L)));
+
+        MvcResult result = mockMvc
+                .perform(MockMvcRequestBuilders.get(REACTIVE_EVENT_API)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(new ObjectMapper().readTree(lines[1]).get("id").asLong()).isEqualTo(12L);
+    }
+
+    private static EventRow createEventRow(Long id) {
+        return EventRow.builder()
+                .id(id)
+                .title("Spring Boot " + id)
+                .description("Evento reativo")
+                .creationDate(LocalDateTime.now())
+                .startDate(LocalDateTime.now().plusDays(1))
+                .endDate(LocalDateTime.now().plusDays(2))
+                .eventTypeEnum(EventTypeEnum.ONLINE)
+                .organizerId(1L)
+                .registrationCount(1)
+                .registrations(List.of(RegistrationRow.builder()
+                        .id(101L)
+                        .nameTag("Maria")
+                        .dateOfRegistration(LocalDateTime.now())
+                        .eventId(id)
+                        .participantId(25L)
+                        .status(RegistrationStatusEnum.CONFIRMED)
+                        .build()))
+                .build();
+    }
+
+}
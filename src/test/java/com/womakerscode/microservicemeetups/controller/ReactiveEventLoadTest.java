@@ -0,0 +1,230 @@
+package com.womakerscode.microservicemeetups.controller;
+
+import com.womakerscode.microservicemeetups.ServicoDeAgendamentoDeMeetupsApplication;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.EventRepositoryTest;
+import com.womakerscode.microservicemeetups.service.EventService;
+import com.womakerscode.microservicemeetups.service.RegistrationService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Threads e conexoes usadas pela listagem de eventos no JPA (GET /api/event?after=) e no R2DBC
+ * (GET /api/reactive/event?after=), com o mesmo conteudo e {@link #CONCURRENCY} clientes simultaneos. Para a
+ * carga completa: {@code -Dmeetups.load.concurrency=5000 -Dmeetups.load.requests=10000}. O r2dbc-h2 executa a
+ * consulta na thread que assina (o H2 embarcado e sincrono): aqui a diferenca aparece nas conexoes, nao nas
+ * threads da requisicao, que so sao poupadas com um driver de rede. Fora do build: {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+public class ReactiveEventLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveEventLoadTest.class);
+
+    private static final int CONCURRENCY = Integer.getInteger("meetups.load.concurrency", 200);
+
+    private static final int REQUESTS = Integer.getInteger("meetups.load.requests", 1_000);
+
+    private static final int EVENTS = 20;
+
+    private static final int REGISTRATIONS = 10;
+
+    @Test
+    @DisplayName("Should list the same events through JPA and R2DBC under concurrent clients")
+    public void compareJpaAndReactive() throws Exception {
+
+        LoadResult jpa = measure("/api/event?size=" + EVENTS + "&after=");
+        LOGGER.info("JPA:   {}", jpa);
+        LoadResult reactive = measure("/api/reactive/event?size=" + EVENTS + "&after=");
+        LOGGER.info("R2DBC: {}", reactive);
+
+        assertThat(jpa.errors).isZero();
+        assertThat(reactive.errors).isZero();
+        assertThat(jpa.jdbcConnections).isPositive();
+        assertThat(reactive.r2dbcConnections).isPositive();
+        // a leitura reativa nao usa o pool do JDBC
+        assertThat(reactive.jdbcConnections).isZero();
+    }
+
+    private LoadResult measure(String path) throws Exception {
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(ServicoDeAgendamentoDeMeetupsApplication.class)
+                        .profiles("test")
+                        .run("--server.port=0", "--spring.jmx.enabled=false", "--meetups.r2dbc.enabled=true")) {
+            long after = seed(context) - 1;
+            URI uri = URI.create("http://localhost:" + context.getWebServer().getPort() + path + after);
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+            try {
+                // aquecimento: JIT e pools de conexoes
+                send(client, uri, Math.min(REQUESTS / 10, CONCURRENCY));
+                return run(client, uri, REQUESTS, context);
+            } finally {
+                clientExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private LoadResult run(HttpClient client, URI uri, int requests, ServletWebServerApplicationContext context)
+            throws Exception {
+        ThreadPoolExecutor tomcatExecutor = (ThreadPoolExecutor) ((TomcatWebServer) context.getWebServer())
+                .getTomcat().getConnector().getProtocolHandler().getExecutor();
+        HikariDataSource dataSource = context.getBean(HikariDataSource.class);
+        ConnectionPool connectionPool = (ConnectionPool) context.getBean(R2dbcEntityTemplate.class)
+                .getDatabaseClient().getConnectionFactory();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        Peak jdbcConnections = new Peak(() -> dataSource.getHikariPoolMXBean().getActiveConnections());
+        Peak r2dbcConnections = new Peak(() -> connectionPool.getMetrics().orElseThrow().acquiredSize());
+        Peak requestThreads = new Peak(tomcatExecutor::getActiveCount);
+        threads.resetPeakThreadCount();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            jdbcConnections.sample();
+            r2dbcConnections.sample();
+            requestThreads.sample();
+        }, 0, 1, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        int errors;
+        try {
+            errors = send(client, uri, requests);
+        } finally {
+            sampler.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new LoadResult(requests / (elapsed / 1e9), errors, requestThreads.max.get(),
+                threads.getPeakThreadCount(), jdbcConnections.max.get(), r2dbcConnections.max.get());
+    }
+
+    // requisicoes com erro
+    private int send(HttpClient client, URI uri, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger errors = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(error -> null).get(5, TimeUnit.MINUTES);
+        return errors.get();
+    }
+
+    // primeiro id dos eventos criados
+    private static long seed(ServletWebServerApplicationContext context) {
+        EventService eventService = context.getBean(EventService.class);
+        RegistrationService registrationService = context.getBean(RegistrationService.class);
+        List<Event> events = IntStream.rangeClosed(1, EVENTS)
+                .mapToObj(i -> {
+                    Event event = EventRepositoryTest.createNewEvent();
+                    event.setTitle("Carga reativa " + i);
+                    event.setCreationDate(LocalDateTime.now());
+                    return eventService.save(event);
+                })
+                .collect(Collectors.toList());
+        for (Event event : events) {
+            registrationService.saveAll(event.getId(), LongStream.rangeClosed(1, REGISTRATIONS)
+                    .mapToObj(participantId -> Registration.builder()
+                            .nameTag("Participante " + participantId)
+                            .dateOfRegistration(LocalDateTime.now())
+                            .event(event)
+                            .participantId(participantId)
+                            .build())
+                    .collect(Collectors.toList()));
+        }
+        return events.get(0).getId();
+    }
+
+    private static class Peak {
+
+        final IntSupplier gauge;
+
+        final AtomicInteger max = new AtomicInteger();
+
+        Peak(IntSupplier gauge) {
+            this.gauge = gauge;
+        }
+
+        void sample() {
+            max.accumulateAndGet(gauge.getAsInt(), Math::max);
+        }
+
+    }
+
+    private static class LoadResult {
+
+        final double throughput;
+
+        final int errors;
+
+        final int requestThreads;
+
+        final int jvmThreads;
+
+        final int jdbcConnections;
+
+        final int r2dbcConnections;
+
+        LoadResult(double throughput, int errors, int requestThreads, int jvmThreads, int jdbcConnections,
+                   int r2dbcConnections) {
+            this.throughput = throughput;
+            this.errors = errors;
+            this.requestThreads = requestThreads;
+            this.jvmThreads = jvmThreads;
+            this.jdbcConnections = jdbcConnections;
+            this.r2dbcConnections = r2dbcConnections;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f requests/s, %d errors, peak of %d busy request threads (%d JVM threads), "
+                            + "%d JDBC and %d R2DBC connections", throughput, errors, requestThreads, jvmThreads,
+                    jdbcConnections, r2dbcConnections);
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.womakerscode.microservicemeetups.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationPostRequestBody;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationResponse;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import com.womakerscode.microservicemeetups.repository.EventRepository;
+import com.womakerscode.microservicemeetups.repository.EventRepositoryTest;
+import com.womakerscode.microservicemeetups.repository.RegistrationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Abertura de inscricoes: {@link #REQUESTS} participantes diferentes disputam as {@link #CAPACITY} vagas do
+ * mesmo evento. Nenhuma vaga pode ser vendida a mais e os demais ficam na lista de espera, na ordem de chegada.
+ * Fora do build: {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RegistrationCapacityLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegistrationCapacityLoadTest.class);
+
+    private static final String REGISTRATION_API = "/api/registration";
+
+    private static final int REQUESTS = 10_000;
+
+    private static final int CAPACITY = 500;
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    RegistrationRepository registrationRepository;
+
+    @Test
+    @DisplayName("Should never exceed the event capacity and waitlist the other participants")
+    public void registerConcurrentlyBeyondCapacity() throws Exception {
+
+        Event event = EventRepositoryTest.createNewEvent();
+        event.setTitle("Abertura de inscricoes");
+        event.setCapacity(CAPACITY);
+        Long eventId = eventRepository.save(event).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<RegistrationResponse>>> futures = new ArrayList<>();
+        for (long participantId = 1; participantId <= REQUESTS; participantId++) {
+            RegistrationPostRequestBody body = RegistrationPostRequestBody.builder()
+                    .eventId(eventId)
+                    .nameTag("Participante " + participantId)
+                    .participantId(participantId)
+                    .build();
+            futures.add(executor.submit(() -> {
+                start.await();
+                return restTemplate.postForEntity(REGISTRATION_API, body, RegistrationResponse.class);
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+
+        int created = 0;
+        int waitlisted = 0;
+        for (Future<ResponseEntity<RegistrationResponse>> future : futures) {
+            ResponseEntity<RegistrationResponse> response = future.get(5, TimeUnit.MINUTES);
+            if (response.getStatusCode() == HttpStatus.CREATED) {
+                assertThat(response.getBody().getStatus()).isEqualTo(RegistrationStatusEnum.CONFIRMED);
+                created++;
+            } else {
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+                assertThat(response.getBody().getStatus()).isEqualTo(RegistrationStatusEnum.WAITLISTED);
+                waitlisted++;
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+        LOGGER.info("{} registrations in {} ms ({} requests/s)", REQUESTS, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                Math.round(REQUESTS / (elapsed / 1e9)));
+
+        assertThat(created).isEqualTo(CAPACITY);
+        assertThat(waitlisted).isEqualTo(REQUESTS - CAPACITY);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getRegistrationCount()).isEqualTo(CAPACITY);
+        assertThat(registrationsOf(eventId, RegistrationStatusEnum.CONFIRMED)).hasSize(CAPACITY);
+
+        // cada vaga liberada vai para a inscricao mais antiga da lista de espera
+        List<Registration> waitlist = registrationsOf(eventId, RegistrationStatusEnum.WAITLISTED);
+        List<Registration> confirmed = registrationsOf(eventId, RegistrationStatusEnum.CONFIRMED);
+        for (int i = 0; i < 10; i++) {
+            restTemplate.delete(REGISTRATION_API + "/" + confirmed.get(i).getId());
+        }
+
+        assertThat(registrationsOf(eventId, RegistrationStatusEnum.CONFIRMED)).hasSize(CAPACITY);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getRegistrationCount()).isEqualTo(CAPACITY);
+        assertThat(registrationsOf(eventId, RegistrationStatusEnum.CONFIRMED))
+                .extracting(Registration::getId)
+                .containsAll(waitlist.subList(0, 10).stream().map(Registration::getId).collect(Collectors.toList()));
+
+        // a listagem do evento traz confirmadas e lista de espera, mesmo com o contador do evento diferente de 0
+        JsonNode page = restTemplate.getForObject(REGISTRATION_API + "?eventId=" + eventId + "&size=1",
+                JsonNode.class);
+        assertThat(page.get("totalElements").asLong()).isEqualTo(REQUESTS - 10);
+
+        // exportacao em stream: cabecalho e uma linha por inscricao
+        String export = restTemplate.getForObject(REGISTRATION_API + "/export?eventId=" + eventId, String.class);
+        assertThat(export.split("\n")).hasSize(REQUESTS - 10 + 1);
+    }
+
+    private List<Registration> registrationsOf(Long eventId, RegistrationStatusEnum status) {
+        return registrationRepository.findAll().stream()
+                .filter(registration -> registration.getEvent().getId().equals(eventId))
+                .filter(registration -> registration.getStatus() == status)
+                .sorted(Comparator.comparing(Registration::getDateOfRegistration)
+                        .thenComparing(Registration::getId))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.womakerscode.microservicemeetups.controller;
+
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationPostRequestBody;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.EventRepository;
+import com.womakerscode.microservicemeetups.repository.RegistrationRepository;
+import com.womakerscode.microservicemeetups.repository.EventRepositoryTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RegistrationConcurrencyTest {
+
+    private static final String REGISTRATION_API = "/api/registration";
+
+    private static final int REQUESTS = 2_000;
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    RegistrationRepository registrationRepository;
+
+    @Test
+    @DisplayName("Should create a single registration when the same participant posts concurrently")
+    public void createDuplicatedRegistrationsConcurrently() throws Exception {
+
+        Event event = eventRepository.save(EventRepositoryTest.createNewEvent());
+        RegistrationPostRequestBody body = RegistrationPostRequestBody.builder()
+                .eventId(event.getId())
+                .nameTag("Michely Souza")
+                .participantId(7L)
+                .build();
+
+        // todas as threads disparam juntas, para que os inserts disputem a mesma chave
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return restTemplate.postForEntity(REGISTRATION_API, body, String.class);
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        int duplicated = 0;
+        for (Future<ResponseEntity<String>> future : futures) {
+            ResponseEntity<String> response = future.get(1, TimeUnit.MINUTES);
+            if (response.getStatusCode() == HttpStatus.CREATED) {
+                created++;
+            } else {
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                assertThat(response.getBody()).contains("Registration already created");
+                duplicated++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(created).isEqualTo(1);
+        assertThat(duplicated).isEqualTo(REQUESTS - 1);
+        assertThat(registrationRepository.findAll())
+                .filteredOn(registration -> registration.getEvent().getId().equals(event.getId()))
+                .extracting(Registration::getParticipantId)
+                .containsExactly(7L);
+    }
+
+}
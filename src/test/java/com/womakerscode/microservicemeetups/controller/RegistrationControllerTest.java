@@ -9,12 +9,15 @@ import com.womakerscode.microservicemeetups.exception.BusinessException;
 import com.womakerscode.microservicemeetups.model.entity.Event;
 import com.womakerscode.microservicemeetups.model.entity.Registration;
 import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
 import com.womakerscode.microservicemeetups.service.EventService;
 import com.womakerscode.microservicemeetups.service.RegistrationService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -22,24 +25,39 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static com.womakerscode.microservicemeetups.util.DateUtil.formatLocalDateTimeToStringWithTime;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyLong;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -102,6 +120,32 @@ public class RegistrationControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Should answer ACCEPTED when the registration is put on the waitlist")
+    public void createWaitlistedRegistrationTest() throws Exception {
+
+        Event event = createValidEvent();
+        Registration waitlisted = createNewRegistration(event);
+        waitlisted.setStatus(RegistrationStatusEnum.WAITLISTED);
+        String json = new ObjectMapper().writeValueAsString(RegistrationPostRequestBody.builder()
+                .nameTag(waitlisted.getNameTag())
+                .participantId(waitlisted.getParticipantId())
+                .eventId(event.getId())
+                .build());
+
+        BDDMockito.given(eventService.getById(anyLong())).willReturn(Optional.of(event));
+        BDDMockito.given(registrationService.save(any(Registration.class))).willReturn(waitlisted);
+
+        mockMvc
+                .perform(MockMvcRequestBuilders
+                        .post(REGISTRATION_API)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("status").value("WAITLISTED"));
+    }
+
     @Test
     @DisplayName("Should throw an exception when not have data enough for the test")
     public void createInvalidRegistrationTest() throws Exception{
@@ -170,6 +214,7 @@ public class RegistrationControllerTest {
                 .participantId(registration.getParticipantId())
                 .build();
 
+        registration.setVersion(3L);
         BDDMockito.given(registrationService.getRegistrationById(id)).willReturn(Optional.of(registration));
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
@@ -183,8 +228,27 @@ public class RegistrationControllerTest {
                 .andExpect(jsonPath("nameTag").value(response.getNameTag()))
                 .andExpect(jsonPath("dateOfRegistration").value(response.getDateOfRegistration()))
                 .andExpect(jsonPath("eventId").value(response.getEventId()))
-                .andExpect(jsonPath("participantId").value(response.getParticipantId()));
+                .andExpect(jsonPath("participantId").value(response.getParticipantId()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+    }
+
+    @Test
+    @DisplayName("Should return NOT MODIFIED checking only the registration version")
+    public void getRegistrationNotModifiedTest() throws Exception {
+
+        BDDMockito.given(registrationService.getVersion(101L)).willReturn(Optional.of(3L));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(REGISTRATION_API.concat("/101"))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isNotModified());
 
+        Mockito.verify(registrationService, Mockito.never()).getRegistrationById(anyLong());
     }
 
     @Test
@@ -267,17 +331,21 @@ public class RegistrationControllerTest {
 
         Registration updatedRegistration = createNewRegistration(event);
 
+        updatedRegistration.setVersion(1L);
+
         BDDMockito.given(registrationService.update(registrationReturnedFromDatabaseForUpdate))
                 .willReturn(updatedRegistration);
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
                 .put(REGISTRATION_API.concat("/" + id))
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
                 .content(json)
                 .accept(MediaType.APPLICATION_JSON)
                 .contentType(MediaType.APPLICATION_JSON);
 
         mockMvc.perform(requestBuilder)
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andExpect(jsonPath("id").value(registrationResponse.getId()))
                 .andExpect(jsonPath("eventId").value(registrationResponse.getEventId()))
                 .andExpect(jsonPath("participantId").value(registrationResponse.getParticipantId()))
@@ -286,6 +354,54 @@ public class RegistrationControllerTest {
                         .value(registrationResponse.getDateOfRegistration()));
     }
 
+    @Test
+    @DisplayName("Should return PRECONDITION FAILED when the If-Match is not the current registration ETag")
+    public void updateRegistrationPreconditionFailedTest() throws Exception {
+
+        Registration registration = createNewRegistration(createValidEvent());
+        registration.setVersion(4L);
+        String json = new ObjectMapper().writeValueAsString(RegistrationPutRequestBody.builder()
+                .nameTag("Mel Souza")
+                .build());
+
+        BDDMockito.given(registrationService.getRegistrationById(anyLong())).willReturn(Optional.of(registration));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put(REGISTRATION_API.concat("/1"))
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .content(json)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isPreconditionFailed());
+
+        Mockito.verify(registrationService, Mockito.never()).update(any(Registration.class));
+    }
+
+    @Test
+    @DisplayName("Should return CONFLICT when the registration was updated by another request")
+    public void updateRegistrationConflictTest() throws Exception {
+
+        Registration registration = createNewRegistration(createValidEvent());
+        String json = new ObjectMapper().writeValueAsString(RegistrationPutRequestBody.builder()
+                .nameTag("Mel Souza")
+                .build());
+
+        BDDMockito.given(registrationService.getRegistrationById(anyLong())).willReturn(Optional.of(registration));
+        BDDMockito.given(registrationService.update(any(Registration.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Registration.class, 1L));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put(REGISTRATION_API.concat("/1"))
+                .content(json)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @DisplayName("Should return 404 when try to update an registration no existent")
     public void updateNonExistentRegistrationTest() throws Exception {
@@ -323,7 +439,7 @@ public class RegistrationControllerTest {
                 .build();
 
         BDDMockito.given(registrationService.find(any(Registration.class), any(Pageable.class)) )
-                .willReturn(new PageImpl<Registration>(List.of(registration)
+                .willReturn(new PageImpl<RegistrationSummary>(List.of(toSummary(registration))
                         , PageRequest.of(0,100), 1));
 
         String queryString = String.format("?nameTag=%s&dateOfRegistration=%s&participantId=%d&page=0&size=100"
@@ -344,6 +460,288 @@ public class RegistrationControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Should filter registrations by cursor")
+    public void findRegistrationAfterTest() throws Exception {
+
+        Registration registration = createNewRegistration(createValidEvent());
+
+        BDDMockito.given(registrationService.findAfter(any(Registration.class), eq(100L), eq(20)))
+                .willReturn(new SliceImpl<RegistrationSummary>(List.of(toSummary(registration)), PageRequest.of(0, 20),
+                        false));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(REGISTRATION_API.concat("?eventId=" + registration.getEvent().getId() + "&after=100"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].eventId").value(registration.getEvent().getId()))
+                .andExpect(jsonPath("size").value(20))
+                .andExpect(jsonPath("hasNext").value(false))
+                .andExpect(jsonPath("nextCursor").isEmpty());
+
+        Mockito.verify(registrationService, Mockito.never()).find(any(Registration.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should import registrations from a JSON array")
+    public void createBulkRegistrationFromJsonTest() throws Exception {
+
+        Event event = createValidEvent();
+        BDDMockito.given(eventService.getById(event.getId())).willReturn(Optional.of(event));
+        BDDMockito.given(registrationService.saveAll(eq(event.getId()), anyList())).willAnswer(invocation -> {
+            List<Registration> registrations = invocation.getArgument(1);
+            // o participante 2 ja estava inscrito no evento
+            List<Registration> created = registrations.stream()
+                    .filter(registration -> registration.getParticipantId() != 2L)
+                    .collect(Collectors.toList());
+            created.forEach(registration -> registration.setId(registration.getParticipantId() + 100));
+            return created;
+        });
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(REGISTRATION_API.concat("/bulk?eventId=" + event.getId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content("[{\"nameTag\": \"Ana\", \"participantId\": 1}, "
+                        + "{\"nameTag\": \"Bia\", \"participantId\": 2}, "
+                        + "{\"nameTag\": \"Ana\", \"participantId\": 1}, "
+                        + "{\"nameTag\": \"\", \"participantId\": 3}]");
+
+        mockMvc
+                .perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("eventId").value(event.getId()))
+                .andExpect(jsonPath("created").value(1))
+                .andExpect(jsonPath("duplicated").value(2))
+                .andExpect(jsonPath("invalid").value(1))
+                .andExpect(jsonPath("rows", hasSize(4)))
+                .andExpect(jsonPath("rows[0].status").value("CREATED"))
+                .andExpect(jsonPath("rows[0].registrationId").value(101))
+                .andExpect(jsonPath("rows[1].status").value("DUPLICATED"))
+                .andExpect(jsonPath("rows[2].status").value("DUPLICATED"))
+                .andExpect(jsonPath("rows[3].status").value("INVALID"))
+                .andExpect(jsonPath("rows[3].message").value("The name tag cannot be empty"));
+
+        // o evento e resolvido uma unica vez para o arquivo todo
+        Mockito.verify(eventService, Mockito.times(1)).getById(event.getId());
+        Mockito.verify(registrationService, Mockito.never()).save(any(Registration.class));
+    }
+
+    @Test
+    @DisplayName("Should import registrations from CSV and NDJSON bodies")
+    public void createBulkRegistrationFromStreamsTest() throws Exception {
+
+        Event event = createValidEvent();
+        BDDMockito.given(eventService.getById(event.getId())).willReturn(Optional.of(event));
+        BDDMockito.given(registrationService.saveAll(eq(event.getId()), anyList())).willAnswer(invocation -> {
+            List<Registration> registrations = invocation.getArgument(1);
+            registrations.forEach(registration -> registration.setId(registration.getParticipantId() + 100));
+            return registrations;
+        });
+
+        mockMvc
+                .perform(MockMvcRequestBuilders
+                        .post(REGISTRATION_API.concat("/bulk?eventId=" + event.getId()))
+                        .contentType("text/csv")
+                        .content("participantId,nameTag\n1,\"Souza, Ana\"\nabc,Bia\n2,Carla\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created").value(2))
+                .andExpect(jsonPath("invalid").value(1))
+                .andExpect(jsonPath("rows[1].status").value("INVALID"))
+                .andExpect(jsonPath("rows[2].registrationId").value(102));
+
+        mockMvc
+                .perform(MockMvcRequestBuilders
+                        .post(REGISTRATION_API.concat("/bulk?eventId=" + event.getId()))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"nameTag\": \"Ana\", \"participantId\": 1}\n{\"nameTag\": \"Bia\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created").value(1))
+                .andExpect(jsonPath("invalid").value(1))
+                .andExpect(jsonPath("rows[1].message").value("The participant cannot be empty"));
+    }
+
+    @Test
+    @DisplayName("Should report the rows beyond the event capacity as waitlisted")
+    public void createBulkRegistrationBeyondCapacityTest() throws Exception {
+
+        Event event = createValidEvent();
+        BDDMockito.given(eventService.getById(event.getId())).willReturn(Optional.of(event));
+        BDDMockito.given(registrationService.saveAll(eq(event.getId()), anyList())).willAnswer(invocation -> {
+            List<Registration> registrations = invocation.getArgument(1);
+            // uma vaga restante no evento
+            registrations.get(0).setId(101L);
+            registrations.get(0).setStatus(RegistrationStatusEnum.CONFIRMED);
+            registrations.get(1).setId(102L);
+            registrations.get(1).setStatus(RegistrationStatusEnum.WAITLISTED);
+            return registrations;
+        });
+
+        mockMvc
+                .perform(MockMvcRequestBuilders
+                        .post(REGISTRATION_API.concat("/bulk?eventId=" + event.getId()))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"nameTag\": \"Ana\", \"participantId\": 1}\n"
+                                + "{\"nameTag\": \"Bia\", \"participantId\": 2}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created").value(1))
+                .andExpect(jsonPath("waitlisted").value(1))
+                .andExpect(jsonPath("rows[0].status").value("CREATED"))
+                .andExpect(jsonPath("rows[1].status").value("WAITLISTED"))
+                .andExpect(jsonPath("rows[1].registrationId").value(102));
+    }
+
+    @Test
+    @DisplayName("Should return BAD REQUEST when importing registrations to a nonexistent event")
+    public void createBulkRegistrationWithoutEventTest() throws Exception {
+
+        BDDMockito.given(eventService.getById(anyLong())).willReturn(Optional.empty());
+
+        mockMvc
+                .perform(MockMvcRequestBuilders
+                        .post(REGISTRATION_API.concat("/bulk?eventId=1"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(registrationService, Mockito.never()).saveAll(anyLong(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should export the event registrations as CSV")
+    public void exportRegistrationsCsvTest() throws Exception {
+
+        Event event = createValidEvent();
+        Registration registration = createNewRegistration(event);
+        registration.setNameTag("Souza, \"Mi\"");
+        BDDMockito.given(eventService.getById(event.getId())).willReturn(Optional.of(event));
+        exportRegistrations(event.getId(), toSummary(registration));
+
+        MvcResult result = mockMvc
+                .perform(MockMvcRequestBuilders
+                        .get(REGISTRATION_API.concat("/export?eventId=" + event.getId())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"event-" + event.getId() + "-registrations.csv\""))
+                .andExpect(content().string("id,nameTag,participantId,dateOfRegistration,status\n"
+                        + "101,\"Souza, \"\"Mi\"\"\",25,"
+                        + formatLocalDateTimeToStringWithTime(registration.getDateOfRegistration()) + ",CONFIRMED\n"));
+    }
+
+    @Test
+    @DisplayName("Should import the CSV export with line breaks inside the name tags")
+    public void importExportedRegistrationsCsvTest() throws Exception {
+
+        Event event = createValidEvent();
+        Registration registration = createNewRegistration(event);
+        registration.setNameTag("Michely\nSouza, \"Mi\"");
+        Registration other = createNewRegistration(event);
+        other.setId(102L);
+        other.setParticipantId(26L);
+        other.setNameTag("Ana\r\nBia");
+        BDDMockito.given(eventService.getById(event.getId())).willReturn(Optional.of(event));
+        exportRegistrations(event.getId(), toSummary(registration), toSummary(other));
+
+        MvcResult result = mockMvc
+                .perform(MockMvcRequestBuilders
+                        .get(REGISTRATION_API.concat("/export?eventId=" + event.getId())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<Registration> imported = new ArrayList<>();
+        BDDMockito.given(registrationService.saveAll(eq(event.getId()), anyList())).willAnswer(invocation -> {
+            List<Registration> registrations = invocation.getArgument(1);
+            imported.addAll(registrations);
+            return registrations;
+        });
+
+        mockMvc
+                .perform(MockMvcRequestBuilders
+                        .post(REGISTRATION_API.concat("/bulk?eventId=" + event.getId()))
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("invalid").value(0))
+                // o registro seguinte ao de nome com quebra de linha comeca na linha 4 do corpo
+                .andExpect(jsonPath("rows[1].row").value(4));
+
+        assertThat(imported)
+                .extracting(Registration::getNameTag, Registration::getParticipantId)
+                .containsExactly(tuple("Michely\nSouza, \"Mi\"", 25L), tuple("Ana\r\nBia", 26L));
+    }
+
+    @Test
+    @DisplayName("Should export the event registrations as NDJSON")
+    public void exportRegistrationsNdjsonTest() throws Exception {
+
+        Event event = createValidEvent();
+        Registration registration = createNewRegistration(event);
+        Registration other = createNewRegistration(event);
+        other.setId(102L);
+        BDDMockito.given(eventService.getById(event.getId())).willReturn(Optional.of(event));
+        exportRegistrations(event.getId(), toSummary(registration), toSummary(other));
+
+        MvcResult result = mockMvc
+                .perform(MockMvcRequestBuilders
+                        .get(REGISTRATION_API.concat("/export?eventId=" + event.getId()))
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(new ObjectMapper().readTree(lines[1]).get("id").asLong())
+                .isEqualTo(102L);
+    }
+
+    @Test
+    @DisplayName("Should return BAD REQUEST when exporting the registrations of a nonexistent event")
+    public void exportRegistrationsWithoutEventTest() throws Exception {
+
+        BDDMockito.given(eventService.getById(anyLong())).willReturn(Optional.empty());
+
+        mockMvc
+                .perform(MockMvcRequestBuilders
+                        .get(REGISTRATION_API.concat("/export?eventId=1")))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(registrationService, Mockito.never()).exportByEvent(anyLong(), any());
+    }
+
+    private void exportRegistrations(Long eventId, RegistrationSummary... registrations) {
+        Mockito.doAnswer(invocation -> {
+            Consumer<RegistrationSummary> action = invocation.getArgument(1);
+            for (RegistrationSummary registration : registrations) {
+                action.accept(registration);
+            }
+            return null;
+        }).when(registrationService).exportByEvent(eq(eventId), any());
+    }
+
     private Registration createNewRegistration(Event event) {
         return Registration.builder()
                 .id(101L)
@@ -354,6 +752,17 @@ public class RegistrationControllerTest {
                 .build();
     }
 
+    private RegistrationSummary toSummary(Registration registration) {
+        return RegistrationSummary.builder()
+                .id(registration.getId())
+                .nameTag(registration.getNameTag())
+                .dateOfRegistration(registration.getDateOfRegistration())
+                .eventId(registration.getEvent().getId())
+                .participantId(registration.getParticipantId())
+                .status(registration.getStatus())
+                .build();
+    }
+
     private Event createValidEvent() {
         Long numberRandom = Math.abs(new Random().nextLong());
         return Event.builder()
@@ -0,0 +1,112 @@
+package com.womakerscode.microservicemeetups.controller;
+
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationPostRequestBody;
+import com.womakerscode.microservicemeetups.controller.dto.RegistrationResponse;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import com.womakerscode.microservicemeetups.repository.EventRepository;
+import com.womakerscode.microservicemeetups.repository.EventRepositoryTest;
+import com.womakerscode.microservicemeetups.repository.RegistrationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Varias remocoes simultaneas da mesma inscricao confirmada: a vaga e liberada uma unica vez e apenas uma
+ * inscricao da lista de espera e promovida.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RegistrationDeleteConcurrencyTest {
+
+    private static final String REGISTRATION_API = "/api/registration";
+
+    private static final int CAPACITY = 2;
+
+    private static final int WAITLISTED = 3;
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    RegistrationRepository registrationRepository;
+
+    @Test
+    @DisplayName("Should release the seat once when the same confirmed registration is deleted concurrently")
+    public void deleteSameRegistrationConcurrently() throws Exception {
+
+        Event event = EventRepositoryTest.createNewEvent();
+        event.setTitle("Remocoes simultaneas");
+        event.setCapacity(CAPACITY);
+        Long eventId = eventRepository.save(event).getId();
+        List<Long> ids = new ArrayList<>();
+        for (long participantId = 1; participantId <= CAPACITY + WAITLISTED; participantId++) {
+            RegistrationPostRequestBody body = RegistrationPostRequestBody.builder()
+                    .eventId(eventId)
+                    .nameTag("Participante " + participantId)
+                    .participantId(participantId)
+                    .build();
+            ids.add(restTemplate.postForObject(REGISTRATION_API, body, RegistrationResponse.class).getId());
+        }
+        Long confirmedId = ids.get(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<Void>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return restTemplate.exchange(REGISTRATION_API + "/" + confirmedId, HttpMethod.DELETE, null,
+                        Void.class);
+            }));
+        }
+        start.countDown();
+        for (Future<ResponseEntity<Void>> future : futures) {
+            assertThat(future.get(1, TimeUnit.MINUTES).getStatusCode())
+                    .isIn(HttpStatus.NO_CONTENT, HttpStatus.NOT_FOUND);
+        }
+        executor.shutdown();
+
+        assertThat(registrationRepository.existsById(confirmedId)).isFalse();
+        assertThat(registrationsOf(eventId, RegistrationStatusEnum.CONFIRMED)).hasSize(CAPACITY);
+        assertThat(registrationsOf(eventId, RegistrationStatusEnum.WAITLISTED)).hasSize(WAITLISTED - 1);
+        assertThat(eventRepository.findById(eventId).orElseThrow().getRegistrationCount()).isEqualTo(CAPACITY);
+        // a promovida e a primeira da lista de espera
+        assertThat(registrationRepository.findById(ids.get(CAPACITY)).orElseThrow().getStatus())
+                .isEqualTo(RegistrationStatusEnum.CONFIRMED);
+    }
+
+    // ids, para que uma falha nao imprima as entidades (colecoes lazy fora da sessao)
+    private List<Long> registrationsOf(Long eventId, RegistrationStatusEnum status) {
+        List<Long> ids = new ArrayList<>();
+        for (Registration registration : registrationRepository.findAll()) {
+            if (registration.getEvent().getId().equals(eventId) && registration.getStatus() == status) {
+                ids.add(registration.getId());
+            }
+        }
+        return ids;
+    }
+
+}
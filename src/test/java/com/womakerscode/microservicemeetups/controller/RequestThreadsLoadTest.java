@@ -0,0 +1,166 @@
+package com.womakerscode.microservicemeetups.controller;
+
+import com.womakerscode.microservicemeetups.ServicoDeAgendamentoDeMeetupsApplication;
+import com.womakerscode.microservicemeetups.config.VirtualThreads;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.EventRepository;
+import com.womakerscode.microservicemeetups.repository.EventRepositoryTest;
+import com.womakerscode.microservicemeetups.service.RegistrationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Throughput e latencia p99 do GET /api/event/{id}/registrations (uma consulta ao banco por requisicao) com
+ * {@link #CONCURRENCY} clientes simultaneos, no pool de threads do Tomcat e em virtual threads
+ * ({@code meetups.threads.virtual}). Cada modo sobe a aplicacao separadamente; em JVMs anteriores ao Java 21
+ * apenas o pool do Tomcat e medido. A medicao fica fora do build: {@code ./gradlew loadTest}.
+ */
+public class RequestThreadsLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestThreadsLoadTest.class);
+
+    private static final int REQUESTS = 2_000;
+
+    private static final int CONCURRENCY = 400;
+
+    private static final int REGISTRATIONS = 200;
+
+    @Test
+    @Tag("load")
+    @DisplayName("Should serve concurrent requests on platform and virtual threads")
+    public void compareThreadModes() throws Exception {
+
+        LoadResult platform = measure(false);
+        LOGGER.info("platform threads: {}", platform);
+        assertThat(platform.errors).isZero();
+
+        assumeTrue(VirtualThreads.isSupported(), "Virtual threads require Java 21");
+        LoadResult virtual = measure(true);
+        LOGGER.info("virtual threads:  {}", virtual);
+        assertThat(virtual.errors).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refuse to start the virtual thread mode before Java 21")
+    public void refuseVirtualThreadsBeforeJava21() {
+
+        assumeFalse(VirtualThreads.isSupported());
+
+        assertThatThrownBy(() -> start(true).close())
+                .hasStackTraceContaining("Virtual threads require Java 21");
+    }
+
+    private LoadResult measure(boolean virtualThreads) throws Exception {
+        try (ServletWebServerApplicationContext context = start(virtualThreads)) {
+            Long eventId = seed(context);
+            URI uri = URI.create("http://localhost:" + context.getWebServer().getPort()
+                    + "/api/event/" + eventId + "/registrations?size=50");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            // aquecimento: JIT, pool de conexoes e cache do evento
+            run(client, uri, REQUESTS / 10);
+            return run(client, uri, REQUESTS);
+        }
+    }
+
+    private LoadResult run(HttpClient client, URI uri, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(error -> null).get(2, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new LoadResult(requests / (elapsed / 1e9),
+                TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(requests * 0.99) - 1]), errors.get());
+    }
+
+    private static ServletWebServerApplicationContext start(boolean virtualThreads) {
+        return (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+                ServicoDeAgendamentoDeMeetupsApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--spring.jmx.enabled=false",
+                        "--meetups.threads.virtual=" + virtualThreads);
+    }
+
+    private static Long seed(ServletWebServerApplicationContext context) {
+        Event event = EventRepositoryTest.createNewEvent();
+        event.setTitle("Carga de requisicoes");
+        event = context.getBean(EventRepository.class).save(event);
+        Event saved = event;
+        List<Registration> registrations = LongStream.rangeClosed(1, REGISTRATIONS)
+                .mapToObj(participantId -> Registration.builder()
+                        .nameTag("Participante " + participantId)
+                        .dateOfRegistration(LocalDateTime.now())
+                        .event(saved)
+                        .participantId(participantId)
+                        .build())
+                .collect(Collectors.toList());
+        context.getBean(RegistrationService.class).saveAll(saved.getId(), registrations);
+        return saved.getId();
+    }
+
+    private static class LoadResult {
+
+        final double throughput;
+
+        final long p99Millis;
+
+        final int errors;
+
+        LoadResult(double throughput, long p99Millis, int errors) {
+            this.throughput = throughput;
+            this.p99Millis = p99Millis;
+            this.errors = errors;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f requests/s, p99 %d ms, %d errors", throughput, p99Millis, errors);
+        }
+
+    }
+
+}
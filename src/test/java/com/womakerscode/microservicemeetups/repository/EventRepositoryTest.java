@@ -1,29 +1,53 @@
 package com.womakerscode.microservicemeetups.repository;
 
 import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
 import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import com.womakerscode.microservicemeetups.repository.projection.EventSummary;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
+import com.womakerscode.microservicemeetups.repository.specification.EntitySpecifications;
+import com.womakerscode.microservicemeetups.util.SearchUtil;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class EventRepositoryTest {
 
     @Autowired
     TestEntityManager entityManager;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     @Autowired
     EventRepository eventRepository;
 
@@ -73,6 +97,218 @@ public class EventRepositoryTest {
         assertThat(deleteEvent).isNull();
     }
 
+    @Test
+    @DisplayName("Should load the registrations of a page of events in a bounded number of queries")
+    public void findEventsWithRegistrationsWithoutNPlusOne() {
+        for (int i = 0; i < 60; i++) {
+            Event event = createNewEvent();
+            event.setTitle(event.getTitle() + " " + i);
+            entityManager.persist(event);
+            for (long participantId = 1; participantId <= 3; participantId++) {
+                entityManager.persist(Registration.builder()
+                        .nameTag("Participante " + participantId)
+                        .dateOfRegistration(LocalDateTime.now())
+                        .event(event)
+                        .participantId(participantId)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Example<Event> example = Example.of(Event.builder().title("tecnologia").build(),
+                ExampleMatcher.matching()
+                        .withIgnoreCase()
+                        .withIgnoreNullValues()
+                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+        Page<Event> page = eventRepository.findAll(example, PageRequest.of(0, 50));
+        page.getContent().forEach(event -> assertThat(event.getRegistrations()).hasSize(3));
+
+        // select da pagina + count + um unico select das inscricoes
+        assertThat(page.getContent()).hasSize(50);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should page events by cursor without the count query")
+    public void findSliceAfterCursor() {
+        Long[] ids = new Long[5];
+        for (int i = 0; i < ids.length; i++) {
+            Event event = createNewEvent();
+            event.setTitle(event.getTitle() + " " + i);
+            ids[i] = entityManager.persist(event).getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Slice<EventSummary> slice = eventRepository.findSummaries(EntitySpecifications.idGreaterThan(ids[1]),
+                PageRequest.of(0, 2, Sort.by("id")));
+
+        assertThat(slice.getContent()).extracting(EventSummary::getId).containsExactly(ids[2], ids[3]);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        Slice<EventSummary> lastSlice = eventRepository.findSummaries(EntitySpecifications.idGreaterThan(ids[3]),
+                PageRequest.of(0, 2, Sort.by("id")));
+
+        assertThat(lastSlice.getContent()).extracting(EventSummary::getId).containsExactly(ids[4]);
+        assertThat(lastSlice.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should list event and registration columns without loading the entities")
+    public void findSummariesWithoutLoadingEntities() {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            Event event = createNewEvent();
+            event.setTitle(event.getTitle() + " " + i);
+            ids[i] = entityManager.persist(event).getId();
+            entityManager.persist(Registration.builder()
+                    .nameTag("Participante " + i)
+                    .dateOfRegistration(LocalDateTime.now())
+                    .event(event)
+                    .participantId((long) i)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Slice<EventSummary> slice = eventRepository.findSummaries(EntitySpecifications.idGreaterThan(ids[0]),
+                PageRequest.of(0, 1, Sort.by("id")));
+        List<RegistrationSummary> registrations = eventRepository.findRegistrationSummaries(List.of(ids[1], ids[2]));
+
+        assertThat(slice.getContent()).extracting(EventSummary::getId).containsExactly(ids[1]);
+        assertThat(slice.getContent().get(0).getTitle()).endsWith(" 1");
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(registrations).extracting(RegistrationSummary::getEventId).containsExactly(ids[1], ids[2]);
+        assertThat(registrations).extracting(RegistrationSummary::getStatus)
+                .containsOnly(RegistrationStatusEnum.CONFIRMED);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should page the registrations of an event by cursor and limit them per event")
+    public void findRegistrationSummariesAfterAndFirstPerEvent() {
+        Event event = entityManager.persist(createNewEvent());
+        Event otherEvent = createNewEvent();
+        otherEvent.setTitle(otherEvent.getTitle() + " 2");
+        entityManager.persist(otherEvent);
+        Long[] ids = new Long[4];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = entityManager.persist(Registration.builder()
+                    .nameTag("Participante " + i)
+                    .dateOfRegistration(LocalDateTime.now())
+                    .event(i % 2 == 0 ? event : otherEvent)
+                    .participantId((long) i)
+                    .build()).getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Slice<RegistrationSummary> first = eventRepository.findRegistrationSummariesAfter(event.getId(), 0L,
+                PageRequest.of(0, 1));
+        Slice<RegistrationSummary> last = eventRepository.findRegistrationSummariesAfter(event.getId(), ids[0],
+                PageRequest.of(0, 1));
+        List<Long> firstIds = eventRepository.findFirstRegistrationIds(List.of(event.getId(), otherEvent.getId()), 1);
+
+        assertThat(first.getContent()).extracting(RegistrationSummary::getId).containsExactly(ids[0]);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(RegistrationSummary::getId).containsExactly(ids[2]);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(firstIds).containsExactlyInAnyOrder(ids[0], ids[1]);
+        assertThat(eventRepository.findRegistrationSummariesById(firstIds))
+                .extracting(RegistrationSummary::getEventId)
+                .containsExactly(event.getId(), otherEvent.getId());
+    }
+
+    @Test
+    @DisplayName("Should reject a duplicated event through the unique constraint")
+    public void rejectDuplicatedEvent() {
+        entityManager.persistAndFlush(createNewEvent());
+
+        Throwable exception = Assertions.catchThrowable(() -> entityManager.persistAndFlush(createNewEvent()));
+
+        assertThat(exception)
+                .isInstanceOf(PersistenceException.class)
+                .hasStackTraceContaining("UK_EVENT_TITLE_PERIOD_ORGANIZER");
+    }
+
+    @Test
+    @DisplayName("Should find events by title through the trigram index ignoring case")
+    public void findByTitleContainingText() {
+        Event career = persistWithTitle("Encontro Mulheres e Carreira em Tecnologia");
+        Event java = persistWithTitle("Workshop de Java");
+        // possui os trigramas de "abca" (abc, bca) mas nao o texto
+        persistWithTitle("bcaabc");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(findByTitle("CARREIRA em")).extracting(Event::getId).containsExactly(career.getId());
+        assertThat(findByTitle("java")).extracting(Event::getId).containsExactly(java.getId());
+        assertThat(findByTitle("abca")).isEmpty();
+        // termos com menos de tres caracteres comparam apenas a coluna normalizada
+        assertThat(findByTitle("JA")).extracting(Event::getId).containsExactly(java.getId());
+        assertThat(eventRepository.countTitleTrigram("jav")).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should reject the update of a copy with an outdated version")
+    public void rejectOutdatedVersionTest() {
+        Event event = persistWithTitle("Encontro de Java");
+        entityManager.flush();
+        entityManager.detach(event);
+
+        Event updated = eventRepository.saveAndFlush(event.toBuilder().description("Primeira alteracao").build());
+        assertThat(updated.getVersion()).isEqualTo(event.getVersion() + 1);
+        entityManager.detach(updated);
+
+        Event outdated = event.toBuilder().description("Alteracao concorrente").build();
+        Throwable exception = Assertions.catchThrowable(() -> eventRepository.saveAndFlush(outdated));
+        assertThat(exception).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a capacity below the registration count")
+    public void rejectCapacityBelowRegistrationCountTest() {
+        Event event = persistWithTitle("Encontro de Kotlin");
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createQuery("update Event as e set e.registrationCount = 3 where e.id = :id")
+                .setParameter("id", event.getId())
+                .executeUpdate();
+
+        event.setCapacity(2);
+        Throwable exception = Assertions.catchThrowable(() -> eventRepository.saveAndFlush(event));
+
+        // o EventServiceImpl identifica a violacao pelo nome da constraint
+        assertThat(exception).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(((ConstraintViolationException) exception.getCause()).getConstraintName())
+                .containsIgnoringCase(Event.CHECK_REGISTRATION_COUNT);
+    }
+
+    private List<Event> findByTitle(String title) {
+        return eventRepository.findAll(EntitySpecifications.containsText("titleNormalized", "titleTrigrams", title,
+                eventRepository::countTitleTrigram));
+    }
+
+    private Event persistWithTitle(String title) {
+        Event event = createNewEvent();
+        event.setTitle(title);
+        event.setTitleNormalized(SearchUtil.normalize(title));
+        event.setTitleTrigrams(SearchUtil.trigrams(event.getTitleNormalized()));
+        return entityManager.persist(event);
+    }
+
     public static Event createNewEvent() {
         return Event.builder()
                 .title("Encontro Mulheres e Carreira em Tecnologia")
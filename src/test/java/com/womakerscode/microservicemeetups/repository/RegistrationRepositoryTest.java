@@ -3,18 +3,32 @@ package com.womakerscode.microservicemeetups.repository;
 import com.womakerscode.microservicemeetups.model.entity.Event;
 import com.womakerscode.microservicemeetups.model.entity.Registration;
 import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
+import com.womakerscode.microservicemeetups.repository.specification.EntitySpecifications;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -69,6 +83,29 @@ public class RegistrationRepositoryTest {
 
     }
 
+    @Test
+    @DisplayName("Should load a registration without loading its event")
+    public void findByIdWithoutLoadingEventTest() {
+
+        Event event = persistEvent();
+        Registration newRegistration = createNewRegistration(event);
+        newRegistration.setId(null);
+        Long id = registrationRepository.save(newRegistration).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Registration foundRegistration = registrationRepository.findById(id).orElseThrow();
+        Optional<Registration> existing = registrationRepository.findExistingRegistrationEvent(event.getId(),
+                newRegistration.getParticipantId());
+
+        // o id do evento vem da chave estrangeira, sem inicializar o proxy
+        assertThat(foundRegistration.getEvent().getId()).isEqualTo(event.getId());
+        assertThat(Hibernate.isInitialized(foundRegistration.getEvent())).isFalse();
+        assertThat(existing).containsSame(foundRegistration);
+        assertThat(foundRegistration.toString()).doesNotContain("Event(");
+        assertThat(Hibernate.isInitialized(foundRegistration.getEvent())).isFalse();
+    }
+
     @Test
     @DisplayName("Should save an registration from the base")
     public void saveRegistrationTest() {
@@ -97,6 +134,152 @@ public class RegistrationRepositoryTest {
 
     }
 
+    @Test
+    @DisplayName("Should page the registrations of an event by cursor")
+    public void findSliceByEventAfterCursor() {
+
+        Event event = persistEvent();
+        Event otherEvent = persistEvent();
+        Long[] ids = new Long[4];
+        for (int i = 0; i < ids.length; i++) {
+            Registration registration = createNewRegistration(event);
+            registration.setId(null);
+            registration.setParticipantId((long) i);
+            ids[i] = registrationRepository.save(registration).getId();
+        }
+        Registration otherRegistration = createNewRegistration(otherEvent);
+        otherRegistration.setId(null);
+        registrationRepository.save(otherRegistration);
+
+        Example<Registration> example = Example.of(
+                Registration.builder().event(Event.builder().id(event.getId()).build()).build(),
+                ExampleMatcher.matching().withIgnoreNullValues());
+
+        Slice<RegistrationSummary> slice = registrationRepository.findSummaries(
+                EntitySpecifications.byExample(example).and(EntitySpecifications.idGreaterThan(ids[0])),
+                PageRequest.of(0, 10, Sort.by("id")));
+
+        assertThat(slice.getContent()).extracting(RegistrationSummary::getId)
+                .containsExactly(ids[1], ids[2], ids[3]);
+        assertThat(slice.hasNext()).isFalse();
+
+    }
+
+    @Test
+    @DisplayName("Should list the registration columns with the event id from the foreign key")
+    public void findSummariesByEventTest() {
+
+        Event event = persistEvent();
+        Registration registration = createNewRegistration(event);
+        registration.setId(null);
+        Long id = registrationRepository.save(registration).getId();
+        Registration otherRegistration = createNewRegistration(persistEvent());
+        otherRegistration.setId(null);
+        registrationRepository.save(otherRegistration);
+        entityManager.flush();
+        entityManager.clear();
+
+        Example<Registration> example = Example.of(
+                Registration.builder().event(Event.builder().id(event.getId()).build()).build(),
+                ExampleMatcher.matching().withIgnoreNullValues());
+
+        Slice<RegistrationSummary> slice = registrationRepository.findSummaries(
+                EntitySpecifications.byExample(example), PageRequest.of(0, 10, Sort.by("id")));
+
+        assertThat(slice.getContent()).hasSize(1);
+        RegistrationSummary summary = slice.getContent().get(0);
+        assertThat(summary.getId()).isEqualTo(id);
+        assertThat(summary.getEventId()).isEqualTo(event.getId());
+        assertThat(summary.getNameTag()).isEqualTo(registration.getNameTag());
+        assertThat(summary.getParticipantId()).isEqualTo(registration.getParticipantId());
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should stream the registrations of an event in id order")
+    public void streamSummariesByEventTest() {
+
+        Event event = persistEvent();
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            Registration registration = createNewRegistration(event);
+            registration.setId(null);
+            registration.setParticipantId((long) i);
+            ids[i] = registrationRepository.save(registration).getId();
+        }
+        Registration otherRegistration = createNewRegistration(persistEvent());
+        otherRegistration.setId(null);
+        registrationRepository.save(otherRegistration);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<RegistrationSummary> registrations;
+        try (Stream<RegistrationSummary> stream = registrationRepository.streamSummariesByEvent(event.getId())) {
+            registrations = stream.collect(Collectors.toList());
+        }
+
+        assertThat(registrations).extracting(RegistrationSummary::getId).containsExactly(ids);
+        assertThat(registrations).extracting(RegistrationSummary::getEventId).containsOnly(event.getId());
+        // projecoes: nada fica no contexto de persistencia durante a leitura
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should insert registrations in batch and find the participants already registered")
+    public void insertAllRegistrationsTest() {
+
+        Event event = persistEvent();
+        List<Registration> registrations = LongStream.rangeClosed(1, 3)
+                .mapToObj(participantId -> {
+                    Registration registration = createNewRegistration(event);
+                    registration.setId(null);
+                    registration.setParticipantId(participantId);
+                    return registration;
+                })
+                .collect(Collectors.toList());
+
+        registrationRepository.insertAll(registrations);
+
+        assertThat(registrations).extracting(Registration::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(registrationRepository.findRegisteredParticipants(event.getId(), List.of(2L, 3L, 4L)))
+                .containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should waitlist the registrations beyond the event capacity")
+    public void addRegistrationsWithinCapacityTest() {
+
+        Event event = persistEvent();
+        event.setCapacity(2);
+        entityManager.flush();
+
+        Registration seated = createNewRegistration(event);
+        seated.setId(null);
+        registrationRepository.insertAll(List.of(seated));
+
+        // o lote nao cabe inteiro: a primeira fica com a vaga restante e as demais vao para a lista de espera
+        List<Registration> registrations = List.of(createNewRegistration(event), createNewRegistration(event),
+                createNewRegistration(event));
+        for (int i = 0; i < registrations.size(); i++) {
+            registrations.get(i).setId(null);
+            registrations.get(i).setParticipantId(i + 2L);
+        }
+        registrationRepository.insertAll(registrations);
+
+        assertThat(registrations).extracting(Registration::getId).doesNotContainNull();
+        assertThat(registrations).extracting(Registration::getStatus).containsExactly(
+                RegistrationStatusEnum.CONFIRMED, RegistrationStatusEnum.WAITLISTED, RegistrationStatusEnum.WAITLISTED);
+
+        entityManager.clear();
+        Event counted = entityManager.find(Event.class, event.getId());
+        assertThat(counted.getRegistrationCount()).isEqualTo(2);
+
+        // a remocao libera a vaga
+        assertThat(registrationRepository.addRegistrations(event.getId(), -1)).isEqualTo(1);
+        assertThat(registrationRepository.addRegistrations(event.getId(), 1)).isEqualTo(1);
+        assertThat(registrationRepository.addRegistrations(event.getId(), 1)).isEqualTo(0);
+    }
+
     private Event persistEvent() {
         long numberRandom = Math.abs(new Random().nextLong());
         Event event = Event.builder()
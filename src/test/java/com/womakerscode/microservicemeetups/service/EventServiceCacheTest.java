@@ -0,0 +1,98 @@
+package com.womakerscode.microservicemeetups.service;
+
+import com.womakerscode.microservicemeetups.config.CacheConfig;
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.repository.EventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class EventServiceCacheTest {
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @MockBean
+    EventRepository eventRepository;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCache(CacheConfig.EVENT_CACHE).clear();
+    }
+
+    @Test
+    @DisplayName("Should read an event from the database only once while it is cached")
+    public void getByIdFromCache() {
+
+        Event event = Event.builder().id(1L).title("Spring").registrations(List.of(new Registration())).build();
+        Mockito.when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        Event first = eventService.getById(1L).orElseThrow();
+        Event second = eventService.getById(1L).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getTitle()).isEqualTo("Spring");
+        // as colecoes lazy nao vao para o cache
+        assertThat(first.getRegistrations()).isNull();
+        Mockito.verify(eventRepository, Mockito.times(1)).findById(1L);
+        assertThat(cacheGets("hit")).isPositive();
+        assertThat(cacheGets("miss")).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should not cache a missing event")
+    public void getByIdNotFoundIsNotCached() {
+
+        Mockito.when(eventRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThat(eventService.getById(2L)).isEmpty();
+        assertThat(eventService.getById(2L)).isEmpty();
+
+        Mockito.verify(eventRepository, Mockito.times(2)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Should evict the cached event on update and delete")
+    public void evictOnUpdateAndDelete() {
+
+        Event event = Event.builder().id(3L).title("Spring").build();
+        Mockito.when(eventRepository.findById(3L)).thenReturn(Optional.of(event));
+        Mockito.when(eventRepository.save(any(Event.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        eventService.getById(3L);
+        eventService.update(event.toBuilder().title("Spring Boot").build());
+        eventService.getById(3L);
+        eventService.delete(event);
+        eventService.getById(3L);
+
+        Mockito.verify(eventRepository, Mockito.times(3)).findById(3L);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", CacheConfig.EVENT_CACHE).tag("result", result)
+                .functionCounter().count();
+    }
+
+}
@@ -5,18 +5,28 @@ import com.womakerscode.microservicemeetups.model.entity.Event;
 import com.womakerscode.microservicemeetups.model.entity.Registration;
 import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
 import com.womakerscode.microservicemeetups.repository.EventRepository;
+import com.womakerscode.microservicemeetups.repository.projection.EventSummary;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
 import com.womakerscode.microservicemeetups.service.impl.EventServiceImpl;
 import org.assertj.core.api.Assertions;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Example;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -51,9 +61,7 @@ public class EventServiceTest {
         Event returnedEvent = createValidEvent();
 
         // execucao
-        Mockito.when(eventRepository.findByEventExistent(Mockito.anyString(), Mockito.any(), Mockito.any(),
-                Mockito.anyLong())).thenReturn(Optional.empty());
-        Mockito.when(eventRepository.save(event)).thenReturn(returnedEvent);
+        Mockito.when(eventRepository.saveAndFlush(event)).thenReturn(returnedEvent);
         Event savedEvent = eventService.save(event);
 
         // assert
@@ -70,21 +78,38 @@ public class EventServiceTest {
 
     }
 
+    @Test
+    @DisplayName("Should keep the normalized title and its trigrams when saving an event")
+    public void saveEventIndexesTitle() {
+        Event event = createValidEvent();
+        event.setTitle("Java NA Web");
+
+        eventService.save(event);
+
+        assertThat(event.getTitleNormalized()).isEqualTo("java na web");
+        assertThat(event.getTitleTrigrams())
+                .containsExactlyInAnyOrder("jav", "ava", "va ", "a n", " na", "na ", "a w", " we", "web");
+    }
+
     @Test
     @DisplayName("Should throw business error when thy to save a new event with a event duplicated")
     public void shouldNotSaveAsEventDuplicated() {
 
         Event event = createValidEvent();
 
-        Mockito.when(eventRepository.findByEventExistent(Mockito.anyString(), Mockito.any(), Mockito.any(),
-                Mockito.anyLong())).thenReturn(Optional.of(event));
+        // a unique (title, start_date, end_date, organizer_id) barra o insert duplicado
+        Mockito.when(eventRepository.saveAndFlush(event))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Unique index or primary key violation", null,
+                                "PUBLIC.UK_EVENT_TITLE_PERIOD_ORGANIZER_INDEX_3")));
 
         Throwable exception = Assertions.catchThrowable(() -> eventService.save(event));
         assertThat(exception)
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("Event already created");
 
-        Mockito.verify(eventRepository, Mockito.never()).save(event);
+        Mockito.verify(eventRepository, Mockito.never()).findByEventExistent(Mockito.anyString(), Mockito.any(),
+                Mockito.any(), Mockito.anyLong());
     }
 
     @Test
@@ -128,7 +153,12 @@ public class EventServiceTest {
     public void deleteEventTest() {
         Event event = Event.builder().id(11L).build();
         assertDoesNotThrow(() -> eventService.delete(event));
-        Mockito.verify(eventRepository, Mockito.times(1)).delete(event);
+        // a linha do evento e travada antes da conferencia das inscricoes
+        InOrder inOrder = Mockito.inOrder(eventRepository);
+        inOrder.verify(eventRepository).lockForRegistrations(11L);
+        inOrder.verify(eventRepository).hasRegistrations(11L);
+        inOrder.verify(eventRepository).delete(event);
+        inOrder.verify(eventRepository).flush();
     }
 
     @Test
@@ -143,12 +173,27 @@ public class EventServiceTest {
     }
 
     @Test
-    @DisplayName("Test validate event with registrations")
-    public void testValidateEventWithRegistrationsForDelete() {
+    @DisplayName("Should not delete an event with registrations")
+    public void deleteEventWithRegistrationsTest() {
         Event event = createValidEvent();
         event.setRegistrations(List.of(Registration.builder().id(22L).build()));
-        Throwable exception = Assertions.catchThrowable(() -> eventService
-                .validateEventWithRegistrationsForDelete(event));
+        Mockito.when(eventRepository.hasRegistrations(event.getId())).thenReturn(true);
+        Throwable exception = Assertions.catchThrowable(() -> eventService.delete(event));
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("The event cannot be deleted as it has active registrations");
+        Mockito.verify(eventRepository, Mockito.never()).delete(event);
+    }
+
+    @Test
+    @DisplayName("Should not delete an event when its registrations foreign key rejects the delete")
+    public void deleteEventRejectedByForeignKeyTest() {
+        Event event = createValidEvent();
+        Mockito.doThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Referential integrity constraint violation", null,
+                                "PUBLIC.FK_REGISTRATION_EVENT")))
+                .when(eventRepository).flush();
+        Throwable exception = Assertions.catchThrowable(() -> eventService.delete(event));
         assertThat(exception)
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("The event cannot be deleted as it has active registrations");
@@ -167,7 +212,7 @@ public class EventServiceTest {
 
         updatedEvent.setId(id);
         updatedEvent.setTitle("Encontro Mulheres e Carreira em Tecnologia 2022");
-        Mockito.when(eventRepository.save(updatingEvent)).thenReturn(updatedEvent);
+        Mockito.when(eventRepository.saveAndFlush(updatingEvent)).thenReturn(updatedEvent);
         Event event = eventService.update(updatingEvent);
 
         // assert
@@ -188,22 +233,126 @@ public class EventServiceTest {
         // cenario
         Event event = createValidEvent();
         PageRequest pageRequest = PageRequest.of(0,10);
-
-        List<Event> listEvents = List.of(event);
-        Page<Event> page = new PageImpl<Event>(List.of(event),
-                PageRequest.of(0,10), 1);
+        EventSummary summary = createEventSummary(event);
+        RegistrationSummary registration = RegistrationSummary.builder()
+                .id(7L)
+                .eventId(event.getId())
+                .participantId(23L)
+                .build();
 
         // execucao
-        Mockito.when(eventRepository.findAll(Mockito.any(Example.class), Mockito.any(PageRequest.class)))
-                .thenReturn(page);
+        Mockito.when(eventRepository.findSummaries(ArgumentMatchers.<Specification<Event>>any(),
+                Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(List.of(summary), invocation.getArgument(1), false));
+        Mockito.when(eventRepository.findRegistrationSummaries(List.of(event.getId())))
+                .thenReturn(List.of(registration));
 
-        Page<Event> result = eventService.find(event, pageRequest);
+        Page<EventSummary> result = eventService.find(event, pageRequest, null);
 
         // assert
         assertThat(result.getTotalElements()).isEqualTo(1);
-        assertThat(result.getContent()).isEqualTo(listEvents);
+        assertThat(result.getContent()).containsExactly(summary);
+        assertThat(summary.getRegistrations()).containsExactly(registration);
         assertThat(result.getPageable().getPageNumber()).isEqualTo(0);
         assertThat(result.getPageable().getPageSize()).isEqualTo(10);
+        // o total sai da propria pagina, e as entidades nao sao carregadas
+        Mockito.verify(eventRepository, Mockito.never()).count(ArgumentMatchers.<Specification<Event>>any());
+        Mockito.verify(eventRepository, Mockito.never())
+                .findAll(ArgumentMatchers.<Specification<Event>>any(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should list events with only their first registrations")
+    public void findEventWithFirstRegistrationsTest() {
+
+        Event event = createValidEvent();
+        EventSummary summary = createEventSummary(event);
+        RegistrationSummary registration = RegistrationSummary.builder()
+                .id(7L)
+                .eventId(event.getId())
+                .participantId(23L)
+                .build();
+
+        Mockito.when(eventRepository.findSummaries(ArgumentMatchers.<Specification<Event>>any(),
+                Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(List.of(summary), invocation.getArgument(1), false));
+        Mockito.when(eventRepository.findFirstRegistrationIds(List.of(event.getId()), 2)).thenReturn(List.of(7L));
+        Mockito.when(eventRepository.findRegistrationSummariesById(List.of(7L))).thenReturn(List.of(registration));
+
+        Page<EventSummary> result = eventService.find(event, PageRequest.of(0, 10), 2);
+
+        assertThat(result.getContent()).containsExactly(summary);
+        assertThat(summary.getRegistrations()).containsExactly(registration);
+        Mockito.verify(eventRepository, Mockito.never()).findRegistrationSummaries(Mockito.anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should list events without reading their registrations")
+    public void findEventWithoutRegistrationsTest() {
+
+        Event event = createValidEvent();
+        EventSummary summary = createEventSummary(event);
+
+        Mockito.when(eventRepository.findSummaries(ArgumentMatchers.<Specification<Event>>any(),
+                Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(List.of(summary), invocation.getArgument(1), false));
+
+        Slice<EventSummary> result = eventService.findSlice(event, PageRequest.of(0, 10), 0);
+
+        assertThat(result.getContent()).containsExactly(summary);
+        assertThat(summary.getRegistrations()).isNull();
+        Mockito.verify(eventRepository, Mockito.never()).findRegistrationSummaries(Mockito.anyCollection());
+        Mockito.verify(eventRepository, Mockito.never())
+                .findFirstRegistrationIds(Mockito.anyCollection(), Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Should filter events after the cursor ordered by id")
+    public void findEventAfterTest() {
+
+        Event event = createValidEvent();
+        EventSummary summary = createEventSummary(event);
+        Slice<EventSummary> slice = new SliceImpl<>(List.of(summary), PageRequest.of(0, 10, Sort.by("id")), false);
+
+        Mockito.when(eventRepository.findSummaries(ArgumentMatchers.<Specification<Event>>any(),
+                Mockito.any(Pageable.class)))
+                .thenReturn(slice);
+
+        Slice<EventSummary> result = eventService.findAfter(event, 100L, 10, null);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        Mockito.verify(eventRepository).findSummaries(ArgumentMatchers.<Specification<Event>>any(), pageable.capture());
+        Mockito.verify(eventRepository, Mockito.never())
+                .findAll(ArgumentMatchers.<Specification<Event>>any(), Mockito.any(Pageable.class));
+        assertThat(result.getContent()).isEqualTo(List.of(summary));
+        assertThat(summary.getRegistrations()).isEmpty();
+        assertThat(pageable.getValue().getPageNumber()).isEqualTo(0);
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(10);
+        assertThat(pageable.getValue().getSort()).isEqualTo(Sort.by("id"));
+    }
+
+    @Test
+    @DisplayName("Should reuse the cached total count between pages")
+    public void findEventWithCachedCountTest() {
+
+        Event filter = Event.builder().title("Tecnologia").build();
+        List<EventSummary> events = List.of(createEventSummary(createValidEvent()),
+                createEventSummary(createValidEvent()));
+
+        Mockito.when(eventRepository.findSummaries(ArgumentMatchers.<Specification<Event>>any(),
+                Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(events, invocation.getArgument(1), true));
+        Mockito.when(eventRepository.count(ArgumentMatchers.<Specification<Event>>any())).thenReturn(42L);
+
+        Page<EventSummary> firstPage = eventService.findWithCachedCount(filter, PageRequest.of(0, 2), null);
+        Page<EventSummary> secondPage = eventService.findWithCachedCount(Event.builder().title("tecnologia").build(),
+                PageRequest.of(1, 2), null);
+
+        assertThat(firstPage.getTotalElements()).isEqualTo(42);
+        assertThat(secondPage.getTotalElements()).isEqualTo(42);
+        Mockito.verify(eventRepository, Mockito.times(1)).count(ArgumentMatchers.<Specification<Event>>any());
+        Mockito.verify(eventRepository, Mockito.never())
+                .findAll(ArgumentMatchers.<Specification<Event>>any(), Mockito.any(Pageable.class));
     }
 
     @Test
@@ -300,4 +449,10 @@ public class EventServiceTest {
                 .build();
     }
 
+    private EventSummary createEventSummary(Event event) {
+        return new EventSummary(event.getId(), event.getTitle(), event.getDescription(), event.getCreationDate(),
+                event.getStartDate(), event.getEndDate(), event.getEventTypeEnum(), event.getOrganizerId(),
+                event.getCapacity(), event.getRegistrationCount());
+    }
+
 }
\ No newline at end of file
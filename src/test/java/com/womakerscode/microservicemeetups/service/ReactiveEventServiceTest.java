@@ -0,0 +1,127 @@
+package com.womakerscode.microservicemeetups.service;
+
+import com.womakerscode.microservicemeetups.model.entity.Event;
+import com.womakerscode.microservicemeetups.model.entity.Registration;
+import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
+import com.womakerscode.microservicemeetups.repository.EventRepositoryTest;
+import com.womakerscode.microservicemeetups.repository.reactive.EventRow;
+import com.womakerscode.microservicemeetups.repository.reactive.RegistrationRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Grava pelo JPA e le pelo R2DBC, no mesmo banco.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "meetups.r2dbc.enabled=true")
+public class ReactiveEventServiceTest {
+
+    @Autowired
+    ReactiveEventService reactiveEventService;
+
+    @Autowired
+    EventService eventService;
+
+    @Autowired
+    RegistrationService registrationService;
+
+    @Test
+    @DisplayName("Should read an event written by JPA with its registrations in id order")
+    public void getByIdTest() {
+
+        Event event = saveEvent("Encontro reativo por id");
+        saveRegistrations(event, 3);
+
+        EventRow found = reactiveEventService.getById(event.getId()).block();
+
+        assertThat(found).isNotNull();
+        assertThat(found.getTitle()).isEqualTo("Encontro reativo por id");
+        assertThat(found.getEventTypeEnum()).isEqualTo(EventTypeEnum.FACE_TO_FACE);
+        assertThat(found.getRegistrationCount()).isEqualTo(3);
+        assertThat(found.getRegistrations())
+                .extracting(RegistrationRow::getParticipantId)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(found.getRegistrations())
+                .allMatch(registration -> registration.getStatus() == RegistrationStatusEnum.CONFIRMED
+                        && event.getId().equals(registration.getEventId()));
+    }
+
+    @Test
+    @DisplayName("Should complete empty when the event does not exist")
+    public void getByIdNotFoundTest() {
+
+        assertThat(reactiveEventService.getById(-1L).blockOptional()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find the events by title after the cursor, each with its own registrations")
+    public void findByTitleTest() {
+
+        // mais eventos que um lote de inscricoes, para conferir a ordem entre os lotes
+        List<Event> events = IntStream.rangeClosed(1, 60)
+                .mapToObj(i -> saveEvent("Busca Reativa " + i))
+                .collect(Collectors.toList());
+        saveRegistrations(events.get(0), 2);
+        saveRegistrations(events.get(55), 1);
+        saveEvent("Outro encontro");
+
+        List<EventRow> found = reactiveEventService.find("busca REATIVA", 0L, 100).collectList().block();
+
+        assertThat(found).extracting(EventRow::getId)
+                .containsExactlyElementsOf(events.stream().map(Event::getId).collect(Collectors.toList()));
+        assertThat(found.get(0).getRegistrations()).hasSize(2);
+        assertThat(found.get(1).getRegistrations()).isEmpty();
+        assertThat(found.get(55).getRegistrations()).extracting(RegistrationRow::getEventId)
+                .containsExactly(events.get(55).getId());
+
+        List<EventRow> page = reactiveEventService.find("busca reativa", events.get(9).getId(), 5)
+                .collectList().block();
+        assertThat(page).extracting(EventRow::getId)
+                .containsExactlyElementsOf(events.subList(10, 15).stream().map(Event::getId)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Should treat the LIKE wildcards of the title as text")
+    public void findByTitleEscapesWildcardsTest() {
+
+        Event event = saveEvent("Desconto de 100% reativo");
+        saveEvent("Desconto de 1000 reativo");
+
+        List<EventRow> found = reactiveEventService.find("100% reativo", 0L, 10).collectList().block();
+
+        assertThat(found).extracting(EventRow::getId).containsExactly(event.getId());
+    }
+
+    private Event saveEvent(String title) {
+        Event event = EventRepositoryTest.createNewEvent();
+        event.setTitle(title);
+        event.setCreationDate(LocalDateTime.now());
+        return eventService.save(event);
+    }
+
+    private void saveRegistrations(Event event, int count) {
+        List<Registration> registrations = LongStream.rangeClosed(1, count)
+                .mapToObj(participantId -> Registration.builder()
+                        .nameTag("Participante " + participantId)
+                        .dateOfRegistration(LocalDateTime.now())
+                        .event(event)
+                        .participantId(participantId)
+                        .build())
+                .collect(Collectors.toList());
+        registrationService.saveAll(event.getId(), registrations);
+    }
+
+}
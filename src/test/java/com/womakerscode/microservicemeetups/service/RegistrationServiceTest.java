@@ -4,26 +4,36 @@ import com.womakerscode.microservicemeetups.exception.BusinessException;
 import com.womakerscode.microservicemeetups.model.entity.Event;
 import com.womakerscode.microservicemeetups.model.entity.Registration;
 import com.womakerscode.microservicemeetups.model.enumeration.EventTypeEnum;
+import com.womakerscode.microservicemeetups.model.enumeration.RegistrationStatusEnum;
 import com.womakerscode.microservicemeetups.repository.RegistrationRepository;
+import com.womakerscode.microservicemeetups.repository.projection.RegistrationSummary;
 import com.womakerscode.microservicemeetups.service.impl.RegistrationServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.hibernate.exception.ConstraintViolationException;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Example;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -50,9 +60,8 @@ public class RegistrationServiceTest {
         Registration registration = createValidRegistration(createValidEvent());
 
         // execucao
-        Mockito.when(registrationRepository.findExistingRegistrationEvent(Mockito.anyLong(), Mockito.anyLong()))
-                .thenReturn(Optional.empty());
-        Mockito.when(registrationRepository.save(registration)).thenReturn(registration);
+        Mockito.when(registrationRepository.saveAndFlush(registration)).thenReturn(registration);
+        Mockito.when(registrationRepository.addRegistrations(registration.getEvent().getId(), 1)).thenReturn(1);
 
         Registration savedRegistration = registrationService.save(registration);
 
@@ -65,23 +74,125 @@ public class RegistrationServiceTest {
 
     }
 
+    @Test
+    @DisplayName("Should put the registration on the waitlist when the event has no capacity left")
+    public void saveWaitlistedRegistrationWhenEventIsFull() {
+
+        Registration registration = createValidRegistration(createValidEvent());
+        Mockito.when(registrationRepository.saveAndFlush(registration)).thenReturn(registration);
+        Mockito.when(registrationRepository.addRegistrations(registration.getEvent().getId(), 1)).thenReturn(0);
+
+        Registration savedRegistration = registrationService.save(registration);
+
+        assertThat(savedRegistration.getStatus()).isEqualTo(RegistrationStatusEnum.WAITLISTED);
+        // a segunda tentativa e feita com a linha do evento travada
+        InOrder inOrder = Mockito.inOrder(registrationRepository);
+        inOrder.verify(registrationRepository).addRegistrations(registration.getEvent().getId(), 1);
+        inOrder.verify(registrationRepository).incrementRegistrationsVersion(registration.getEvent().getId());
+        inOrder.verify(registrationRepository).addRegistrations(registration.getEvent().getId(), 1);
+        inOrder.verify(registrationRepository).saveAndFlush(registration);
+    }
+
     @Test
     @DisplayName("Should throw business error when try to save a new registration duplicated")
     public void shouldNotSaveAsRegistrationDuplicated() {
 
         Registration registration = createValidRegistration(createValidEvent());
-        Mockito.when(registrationRepository.findExistingRegistrationEvent(Mockito.anyLong(), Mockito.anyLong()))
-                .thenReturn(Optional.of(registration));
+        Mockito.when(registrationRepository.saveAndFlush(registration))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Unique index or primary key violation", null,
+                                "PUBLIC.UK_REGISTRATION_EVENT_PARTICIPANT_INDEX_3")));
 
         Throwable exception = Assertions.catchThrowable( () -> registrationService.save(registration));
         assertThat(exception)
                 .isInstanceOf(BusinessException.class)
                 .hasMessage("Registration already created");
 
-        Mockito.verify(registrationRepository, Mockito.never()).save(registration);
+        // sem o select previo: a duplicidade vem da unique do banco
+        Mockito.verify(registrationRepository, Mockito.never())
+                .findExistingRegistrationEvent(Mockito.anyLong(), Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Should keep other integrity errors when saving a registration")
+    public void shouldPropagateOtherIntegrityViolations() {
+
+        Registration registration = createValidRegistration(createValidEvent());
+        DataIntegrityViolationException notNullViolation = new DataIntegrityViolationException(
+                "could not execute statement", new ConstraintViolationException("NULL not allowed for column",
+                null, null));
+        Mockito.when(registrationRepository.saveAndFlush(registration)).thenThrow(notNullViolation);
+
+        Throwable exception = Assertions.catchThrowable( () -> registrationService.save(registration));
+        assertThat(exception).isSameAs(notNullViolation);
 
     }
 
+    @Test
+    @DisplayName("Should throw business error when the event was deleted before the registration is saved")
+    public void shouldNotSaveRegistrationOfDeletedEvent() {
+
+        Registration registration = createValidRegistration(createValidEvent());
+        // o evento veio do cache e foi removido por outra requisicao antes do insert
+        Mockito.when(registrationRepository.saveAndFlush(registration))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("Referential integrity violation", null,
+                                "PUBLIC.FK_REGISTRATION_EVENT")));
+
+        Throwable exception = Assertions.catchThrowable( () -> registrationService.save(registration));
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("The event no longer exists");
+
+    }
+
+    @Test
+    @DisplayName("Should insert in batch only the participants not yet registered in the event")
+    public void saveAllRegistrations() {
+
+        Event event = createValidEvent();
+        Registration registered = createValidRegistration(event);
+        registered.setId(null);
+        Registration newRegistration = createValidRegistration(event);
+        newRegistration.setId(null);
+        newRegistration.setParticipantId(99L);
+
+        Mockito.when(registrationRepository.findRegisteredParticipants(event.getId(),
+                List.of(registered.getParticipantId(), 99L))).thenReturn(List.of(registered.getParticipantId()));
+        Mockito.when(registrationRepository.insertAll(List.of(newRegistration))).thenReturn(List.of(newRegistration));
+
+        List<Registration> result = registrationService.saveAll(event.getId(), List.of(registered, newRegistration));
+
+        Assertions.assertThat(result).containsExactly(newRegistration);
+        assertThat(newRegistration.getNameTagNormalized()).isEqualTo("michely souza");
+        Mockito.verify(registrationRepository, Mockito.never()).saveAndFlush(Mockito.any(Registration.class));
+    }
+
+    @Test
+    @DisplayName("Should fall back to one by one inserts when the batch hits a duplicated registration")
+    public void saveAllRegistrationsWithConcurrentDuplicate() {
+
+        Event event = createValidEvent();
+        Registration duplicated = createValidRegistration(event);
+        duplicated.setId(null);
+        Registration newRegistration = createValidRegistration(event);
+        newRegistration.setId(null);
+        newRegistration.setParticipantId(99L);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute batch",
+                new ConstraintViolationException("Unique index or primary key violation", null,
+                        "PUBLIC.UK_REGISTRATION_EVENT_PARTICIPANT_INDEX_3"));
+
+        Mockito.when(registrationRepository.findRegisteredParticipants(Mockito.anyLong(), Mockito.anyCollection()))
+                .thenReturn(List.of());
+        Mockito.when(registrationRepository.insertAll(Mockito.anyList())).thenThrow(violation);
+        Mockito.doReturn(List.of(newRegistration)).when(registrationRepository).insertAll(List.of(newRegistration));
+
+        List<Registration> result = registrationService.saveAll(event.getId(), List.of(duplicated, newRegistration));
+
+        Assertions.assertThat(result).containsExactly(newRegistration);
+        assertThat(duplicated.getId()).isNull();
+    }
+
     @Test
     @DisplayName("Should get an Registration by Id")
     public void getByRegistrationIdTest() {
@@ -119,12 +230,81 @@ public class RegistrationServiceTest {
     @DisplayName("Should delete an registration")
     public void deleteRegistrationTest() {
 
-        Registration registration = Registration.builder().id(11L).build();
+        Registration registration = Registration.builder().id(11L).event(Event.builder().id(3L).build()).build();
+        Mockito.when(registrationRepository.findByIdForUpdate(11L)).thenReturn(Optional.of(registration));
 
         assertDoesNotThrow(() -> registrationService.delete(registration));
 
         Mockito.verify(registrationRepository, Mockito.times(1)).delete(registration);
+        Mockito.verify(registrationRepository, Mockito.times(1)).addRegistrations(3L, -1);
+        Mockito.verify(registrationRepository, Mockito.never()).updateStatus(Mockito.anyLong(), Mockito.any());
+
+    }
+
+    @Test
+    @DisplayName("Should confirm the oldest waitlisted registration when a seat is released")
+    public void deleteRegistrationConfirmsWaitlistedTest() {
+
+        Registration registration = Registration.builder().id(11L).event(Event.builder().id(3L).build()).build();
+        Mockito.when(registrationRepository.findByIdForUpdate(11L)).thenReturn(Optional.of(registration));
+        Mockito.when(registrationRepository.findByStatus(Mockito.eq(3L),
+                Mockito.eq(RegistrationStatusEnum.WAITLISTED), Mockito.any(Pageable.class))).thenReturn(List.of(12L));
+        Mockito.when(registrationRepository.updateStatus(12L, RegistrationStatusEnum.CONFIRMED)).thenReturn(1);
+
+        registrationService.delete(registration);
+
+        InOrder inOrder = Mockito.inOrder(registrationRepository);
+        inOrder.verify(registrationRepository).incrementRegistrationsVersion(3L);
+        inOrder.verify(registrationRepository).findByIdForUpdate(11L);
+        inOrder.verify(registrationRepository).delete(registration);
+        inOrder.verify(registrationRepository).addRegistrations(3L, -1);
+        inOrder.verify(registrationRepository).updateStatus(12L, RegistrationStatusEnum.CONFIRMED);
+        inOrder.verify(registrationRepository).addRegistrations(3L, 1);
+    }
+
+    @Test
+    @DisplayName("Should not release a seat when deleting a waitlisted registration")
+    public void deleteWaitlistedRegistrationTest() {
+
+        Registration registration = Registration.builder().id(11L).event(Event.builder().id(3L).build())
+                .status(RegistrationStatusEnum.WAITLISTED).build();
+        Mockito.when(registrationRepository.findByIdForUpdate(11L)).thenReturn(Optional.of(registration));
 
+        registrationService.delete(registration);
+
+        Mockito.verify(registrationRepository).delete(registration);
+        Mockito.verify(registrationRepository).incrementRegistrationsVersion(3L);
+        Mockito.verify(registrationRepository, Mockito.never()).addRegistrations(Mockito.anyLong(), Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Should decide by the current row when the registration was promoted after it was read")
+    public void deletePromotedRegistrationTest() {
+
+        Registration registration = Registration.builder().id(11L).event(Event.builder().id(3L).build())
+                .status(RegistrationStatusEnum.WAITLISTED).build();
+        Registration current = Registration.builder().id(11L).event(registration.getEvent())
+                .status(RegistrationStatusEnum.CONFIRMED).build();
+        Mockito.when(registrationRepository.findByIdForUpdate(11L)).thenReturn(Optional.of(current));
+
+        registrationService.delete(registration);
+
+        Mockito.verify(registrationRepository).delete(current);
+        Mockito.verify(registrationRepository).addRegistrations(3L, -1);
+    }
+
+    @Test
+    @DisplayName("Should neither release a seat nor promote when the registration was already deleted")
+    public void deleteAlreadyDeletedRegistrationTest() {
+
+        Registration registration = Registration.builder().id(11L).event(Event.builder().id(3L).build()).build();
+        Mockito.when(registrationRepository.findByIdForUpdate(11L)).thenReturn(Optional.empty());
+
+        registrationService.delete(registration);
+
+        Mockito.verify(registrationRepository, Mockito.never()).delete(Mockito.any(Registration.class));
+        Mockito.verify(registrationRepository, Mockito.never()).addRegistrations(Mockito.anyLong(), Mockito.anyInt());
+        Mockito.verify(registrationRepository, Mockito.never()).updateStatus(Mockito.anyLong(), Mockito.any());
     }
 
     @Test
@@ -159,6 +339,8 @@ public class RegistrationServiceTest {
         assertThat(registration.getEvent()).isEqualTo(updatedRegistration.getEvent());
         assertThat(registration.getDateOfRegistration()).isEqualTo(updatedRegistration.getDateOfRegistration());
         assertThat(registration.getParticipantId()).isEqualTo(updatedRegistration.getParticipantId());
+        Mockito.verify(registrationRepository, Mockito.times(1))
+                .incrementRegistrationsVersion(updatedRegistration.getEvent().getId());
 
     }
 
@@ -181,22 +363,48 @@ public class RegistrationServiceTest {
         Registration registration = createValidRegistration(createValidEvent());
         PageRequest pageRequest = PageRequest.of(0, 10);
 
-        List<Registration> listRegistrations = List.of(registration);
-        Page<Registration> page = new PageImpl<>(List.of(registration),
-                PageRequest.of(0,10), 1);
+        List<RegistrationSummary> listRegistrations = List.of(RegistrationSummary.builder()
+                .id(registration.getId())
+                .nameTag(registration.getNameTag())
+                .eventId(registration.getEvent().getId())
+                .participantId(registration.getParticipantId())
+                .build());
 
         // execucao
-        Mockito.when(registrationRepository.findAll(Mockito.any(Example.class), Mockito.any(PageRequest.class)))
-                .thenReturn(page);
+        Mockito.when(registrationRepository.findSummaries(ArgumentMatchers.<Specification<Registration>>any(),
+                        Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(listRegistrations, invocation.getArgument(1), false));
 
-        Page<Registration> result = registrationService.find(registration, pageRequest);
+        Page<RegistrationSummary> result = registrationService.find(registration, pageRequest);
 
         // assert
         assertThat(result.getTotalElements()).isEqualTo(1);
         assertThat(result.getContent()).isEqualTo(listRegistrations);
         assertThat(result.getPageable().getPageNumber()).isEqualTo(0);
         assertThat(result.getPageable().getPageSize()).isEqualTo(10);
+        // o total sai da propria pagina, e as entidades nao sao carregadas
+        Mockito.verify(registrationRepository, Mockito.never())
+                .count(ArgumentMatchers.<Specification<Registration>>any());
+        Mockito.verify(registrationRepository, Mockito.never())
+                .findAll(ArgumentMatchers.<Specification<Registration>>any(), Mockito.any(Pageable.class));
+
+    }
+
+    @Test
+    @DisplayName("Should export the event registrations and close the stream")
+    public void exportByEventTest() {
+
+        RegistrationSummary registration = RegistrationSummary.builder().id(101L).eventId(1L).build();
+        AtomicBoolean closed = new AtomicBoolean();
+        Mockito.when(registrationRepository.streamSummariesByEvent(1L))
+                .thenReturn(Stream.of(registration).onClose(() -> closed.set(true)));
+
+        List<RegistrationSummary> exported = new ArrayList<>();
+        registrationService.exportByEvent(1L, exported::add);
 
+        assertThat(exported).isEqualTo(List.of(registration));
+        // o stream segura a conexao e o cursor do banco ate ser fechado
+        assertThat(closed.get()).isTrue();
     }
 
     private Event createValidEvent() {
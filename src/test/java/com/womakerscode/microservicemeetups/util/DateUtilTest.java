@@ -0,0 +1,71 @@
+package com.womakerscode.microservicemeetups.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DateUtilTest {
+
+    @Test
+    @DisplayName("Should format the date with the default pattern")
+    public void formatDateTest() {
+        List<LocalDateTime> dates = List.of(
+                LocalDateTime.of(2022, 3, 24, 19, 0),
+                LocalDateTime.of(2022, 12, 31, 23, 59),
+                LocalDateTime.of(1, 1, 1, 0, 0),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+                LocalDateTime.of(10000, 1, 1, 0, 0),
+                LocalDateTime.of(0, 1, 1, 0, 0),
+                LocalDateTime.of(-5, 6, 15, 12, 30));
+        for (LocalDateTime date : dates) {
+            assertThat(DateUtil.formatLocalDateTimeToStringWithTime(date))
+                    .isEqualTo(DateUtil.DATE_TIME_FORMATTER_DEFAULT.format(date));
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw an exception when format a null date")
+    public void formatNullDateTest() {
+        Throwable exception = Assertions.catchThrowable(() -> DateUtil.formatLocalDateTimeToStringWithTime(null));
+        assertThat(exception)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The date is invalid");
+    }
+
+    @Test
+    @DisplayName("Should parse the date exactly as the default formatter")
+    public void parseDateTest() {
+        List<String> dates = List.of(
+                "24/03/2022 19:00", "31/12/2022 23:59", "01/01/0001 00:00", "29/02/2024 10:15",
+                "29/02/2023 10:15", "31/04/2022 10:15", "31/02/2022 10:15", "32/01/2022 10:00",
+                "00/01/2022 10:00", "10/13/2022 10:00", "10/00/2022 10:00", "10/10/0000 10:00",
+                "10/10/2022 24:00", "10/10/2022 24:01", "10/10/2022 23:60", "1/10/2022 10:00",
+                "10/10/22 10:00", "10-10-2022 10:00", "10/10/2022T10:00", "10/10/2022 10:00 ",
+                "10/10/12022 10:00", "aa/10/2022 10:00", "１0/10/2022 10:00", "");
+        for (String date : dates) {
+            Object expected = parseWithFormatter(date);
+            Object actual;
+            try {
+                actual = DateUtil.convertStringToLocalDateTimeWithTime(date);
+            } catch (DateTimeParseException e) {
+                actual = e.getMessage();
+            }
+            assertThat(actual).as(date).isEqualTo(expected);
+        }
+    }
+
+    private Object parseWithFormatter(String date) {
+        try {
+            return LocalDateTime.parse(date, DateUtil.DATE_TIME_FORMATTER_DEFAULT);
+        } catch (DateTimeParseException e) {
+            return e.getMessage();
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.womakerscode.microservicemeetups.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SearchUtilTest {
+
+    @Test
+    @DisplayName("Should break the normalized text into distinct trigrams")
+    public void trigramsTest() {
+        assertThat(SearchUtil.normalize("JaVa")).isEqualTo("java");
+        assertThat(SearchUtil.trigrams("banana")).containsExactly("ban", "ana", "nan");
+        assertThat(SearchUtil.trigrams("ja")).isEmpty();
+        assertThat(SearchUtil.trigrams(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should escape the LIKE wildcards")
+    public void escapeLikeTest() {
+        assertThat(SearchUtil.escapeLike("100%_a\\b")).isEqualTo("100\\%\\_a\\\\b");
+    }
+
+}